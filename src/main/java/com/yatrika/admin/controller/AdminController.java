@@ -90,7 +90,7 @@ public class AdminController {
     public ResponseEntity<ContentFlagDTO> resolveContentFlag(
             @PathVariable Long flagId,
             @Valid @RequestBody ResolveFlagRequest request) {
-        User admin = currentUserService.getCurrentUserEntity();
+        User admin = currentUserService.getCurrentUserReference();
         ContentFlagDTO resolvedFlag = adminService.resolveContentFlag(flagId, request, admin);
         return ResponseEntity.ok(resolvedFlag);
     }
@@ -1,9 +1,14 @@
 package com.yatrika.community.controller;
 
 import com.yatrika.community.dto.request.CreatePostRequest;
+import com.yatrika.community.dto.request.LikeReplayRequest;
 import com.yatrika.community.dto.request.UpdatePostRequest;
+import com.yatrika.community.dto.response.BulkLikeResult;
+import com.yatrika.community.dto.response.PostCardResponse;
 import com.yatrika.community.dto.response.PostResponse;
 import com.yatrika.community.service.PostService;
+import com.yatrika.shared.dto.CursorPageResponse;
+import com.yatrika.shared.dto.UniqueViewersResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,10 +18,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/community/posts")
@@ -68,53 +79,98 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream like and view counts of the given posts (Server-Sent Events, at most one update per post per second)")
+    public SseEmitter streamCounters(@RequestParam List<Long> ids) {
+        return postService.subscribeToCounters(ids);
+    }
+
+    @GetMapping("/{id}/unique-viewers")
+    @Operation(summary = "Estimated distinct viewers of a post between two dates (defaults to the last 30 days)")
+    public ResponseEntity<UniqueViewersResponse> getUniqueViewers(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(postService.getUniqueViewers(id, from, to));
+    }
+
     @GetMapping("/my")
     @PreAuthorize("hasRole('USER')")
     @Operation(
             summary = "Get current user's posts",
             security = @SecurityRequirement(name = "bearerAuth")
     )
-    public ResponseEntity<Page<PostResponse>> getMyPosts(
+    public ResponseEntity<Page<PostCardResponse>> getMyPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") Sort.Direction sortDirection) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<PostResponse> response = postService.getMyPosts(pageable);
+        Page<PostCardResponse> response = postService.getMyPosts(pageable);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/public")
     @Operation(summary = "Get public community posts")
-    public ResponseEntity<Page<PostResponse>> getPublicPosts(
+    public ResponseEntity<Page<PostCardResponse>> getPublicPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<PostResponse> response = postService.getPublicPosts(pageable);
+        Page<PostCardResponse> response = postService.getPublicPosts(pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/public/cursor")
+    @Operation(summary = "Get public community posts by cursor (infinite scroll, no total count)")
+    public ResponseEntity<CursorPageResponse<PostCardResponse>> getPublicPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPublicPostsAfter(cursor, Math.max(1, Math.min(size, 100))));
+    }
+
+    @GetMapping("/feed")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+            summary = "Get the current user's personalized feed",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<Page<PostCardResponse>> getFeed(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<PostCardResponse> response = postService.getFeed(pageable);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search public posts")
-    public ResponseEntity<Page<PostResponse>> searchPosts(
+    public ResponseEntity<Page<PostCardResponse>> searchPosts(
             @RequestParam(required = false) String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<PostResponse> response = postService.searchPosts(query, pageable);
+        Page<PostCardResponse> response = postService.searchPosts(query, pageable);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/trending")
     @Operation(summary = "Get trending posts")
-    public ResponseEntity<Page<PostResponse>> getTrendingPosts(
+    public ResponseEntity<Page<PostCardResponse>> getTrendingPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<PostResponse> response = postService.getTrendingPosts(pageable);
+        Page<PostCardResponse> response = postService.getTrendingPosts(pageable);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/trending/cursor")
+    @Operation(summary = "Get trending posts by cursor (infinite scroll, no total count)")
+    public ResponseEntity<CursorPageResponse<PostCardResponse>> getTrendingPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.getTrendingPostsAfter(cursor, Math.max(1, Math.min(size, 100))));
+    }
+
     @PostMapping("/{id}/like")
     @PreAuthorize("hasRole('USER')")
     @Operation(
@@ -126,6 +182,16 @@ public class PostController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/likes/replay")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+            summary = "Replay likes and unlikes queued offline (last action per post wins, per-item outcomes)",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<BulkLikeResult> replayLikes(@Valid @RequestBody List<LikeReplayRequest> actions) {
+        return ResponseEntity.ok(postService.replayLikes(actions));
+    }
+
     @DeleteMapping("/{id}/like")
     @PreAuthorize("hasRole('USER')")
     @Operation(
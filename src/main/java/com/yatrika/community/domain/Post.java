@@ -1,5 +1,6 @@
 package com.yatrika.community.domain;
 
+import com.yatrika.community.service.PostSearchIndexListener;
 import com.yatrika.shared.domain.BaseEntity;
 import com.yatrika.user.domain.User;
 import jakarta.persistence.*;
@@ -13,7 +14,11 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        // Keyset scan for the public list: equality on is_public, then (created_at, id) in page order
+        @Index(name = "idx_posts_public_created", columnList = "is_public, created_at DESC, id DESC")
+})
+@EntityListeners(PostSearchIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -82,18 +87,4 @@ public class Post extends BaseEntity {
         days.add(day);
         day.setPost(this);
     }
-
-    public void incrementViews() {
-        this.totalViews++;
-    }
-
-    public void incrementLikes() {
-        this.totalLikes++;
-    }
-
-    public void decrementLikes() {
-        if (this.totalLikes > 0) {
-            this.totalLikes--;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.yatrika.community.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One like or unlike a client queued while offline, replayed through POST /api/community/posts/likes/replay
+@Data
+public class LikeReplayRequest {
+
+    public enum Action { LIKE, UNLIKE }
+
+    @NotNull(message = "Post id is required")
+    private Long postId;
+
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    private LocalDateTime clientTimestamp; // when the user tapped; becomes the like's time (never in the future)
+}
@@ -0,0 +1,35 @@
+package com.yatrika.community.dto.response;
+
+import com.yatrika.community.dto.request.LikeReplayRequest;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkLikeResult {
+
+    private int total;
+    private int applied;
+
+    private List<Item> results;
+
+    public enum Outcome {
+        APPLIED,     // this action changed the like
+        UNCHANGED,   // the post was already liked / not liked
+        SUPERSEDED,  // a later action for the same post decided its final state
+        NOT_FOUND,   // the post does not exist (any more)
+        INVALID      // postId or action missing
+    }
+
+    @Data
+    @Builder
+    public static class Item {
+        private int index;
+        private Long postId;
+        private LikeReplayRequest.Action action;
+        private Outcome outcome;
+        private Boolean liked; // final state after the whole batch, null when the post was not found
+    }
+}
@@ -0,0 +1,29 @@
+package com.yatrika.community.dto.response;
+
+import com.yatrika.user.dto.response.UserSummaryResponse;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Compact post for list pages; the full post (content, days, all media, tags) is GET /api/community/posts/{id}
+@Data
+public class PostCardResponse {
+    private Long id;
+    private UserSummaryResponse user;
+    private String title;
+    private String snippet;
+    private String coverImageUrl;
+    private String destination;
+    private Integer tripDurationDays;
+    private Double estimatedCost;
+    private Boolean isPublic;
+    private Integer totalViews;
+    private Integer totalLikes;
+    private Boolean isLikedByCurrentUser;
+    private List<PostMediaResponse> media; // first few, in display order
+    private LocalDateTime createdAt;
+    // Search only: field name -> HTML-escaped snippet with the matched terms in <b>...</b>
+    private Map<String, String> highlights;
+}
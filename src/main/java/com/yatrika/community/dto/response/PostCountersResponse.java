@@ -0,0 +1,15 @@
+package com.yatrika.community.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One post's live counters, pushed to subscribers of GET /api/community/posts/live
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCountersResponse {
+    private Long postId;
+    private Long totalLikes;
+    private Long totalViews;
+}
@@ -3,9 +3,11 @@ package com.yatrika.community.mapper;
 import com.yatrika.community.domain.Post;
 import com.yatrika.community.domain.PostDay;
 import com.yatrika.community.domain.PostMedia;
+import com.yatrika.community.dto.response.PostCardResponse;
 import com.yatrika.community.dto.response.PostDayResponse;
 import com.yatrika.community.dto.response.PostMediaResponse;
 import com.yatrika.community.dto.response.PostResponse;
+import com.yatrika.community.repository.PostCardRow;
 import com.yatrika.user.domain.User;
 import com.yatrika.user.dto.response.UserSummaryResponse;
 import org.mapstruct.Mapper;
@@ -20,6 +22,13 @@ public interface PostMapper {
     @Mapping(target = "isLikedByCurrentUser", ignore = true)
     PostResponse toResponse(Post post);
 
+    // Scalars only; the service fills in author, media, liked flag and a trimmed snippet in batches
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "media", ignore = true)
+    @Mapping(target = "isLikedByCurrentUser", ignore = true)
+    @Mapping(target = "highlights", ignore = true)
+    PostCardResponse toCard(PostCardRow row);
+
     // MapStruct will use this to convert the User entity to UserSummaryResponse
     UserSummaryResponse toUserSummaryResponse(User user);
 
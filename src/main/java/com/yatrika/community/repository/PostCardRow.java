@@ -0,0 +1,23 @@
+package com.yatrika.community.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of one post as shown on a list card, read by projection so list pages never
+ * load the Post graph or its full content (snippet is the first characters of the content).
+ */
+public record PostCardRow(
+        Long id,
+        Long authorId,
+        String title,
+        String snippet,
+        String coverImageUrl,
+        String destination,
+        Integer tripDurationDays,
+        Double estimatedCost,
+        Boolean isPublic,
+        Integer totalViews,
+        Integer totalLikes,
+        LocalDateTime createdAt
+) {
+}
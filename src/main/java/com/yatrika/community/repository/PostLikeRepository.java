@@ -2,9 +2,13 @@ package com.yatrika.community.repository;
 
 import com.yatrika.community.domain.PostLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
@@ -13,6 +17,50 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
 
     boolean existsByPostIdAndUserId(Long postId, Long userId);
 
+    // --- Atomic like / unlike ---
+    // 1 when the like row was created, 0 when it already existed (or the post is gone);
+    // the (post_id, user_id) unique constraint makes concurrent double-likes a no-op
+    @Modifying
+    @Query(value = """
+        INSERT INTO post_likes (post_id, user_id, created_at, updated_at)
+        SELECT :postId, :userId, :now, :now
+        WHERE EXISTS (SELECT 1 FROM posts WHERE id = :postId)
+        ON CONFLICT (post_id, user_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM PostLike pl WHERE pl.post.id = :postId AND pl.user.id = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // --- Set-based like / unlike for offline replays (PostService.replayLikes) ---
+    // Both return the post ids whose like row was actually created / deleted, so counters move exactly
+
+    @Query(value = """
+        INSERT INTO post_likes (post_id, user_id, created_at, updated_at)
+        SELECT v.post_id, :userId, v.liked_at, v.liked_at
+        FROM unnest(CAST(:postIds AS bigint[]), CAST(:likedAt AS timestamp[])) AS v(post_id, liked_at)
+        WHERE EXISTS (SELECT 1 FROM posts WHERE id = v.post_id)
+        ON CONFLICT (post_id, user_id) DO NOTHING
+        RETURNING post_id
+        """, nativeQuery = true)
+    List<Long> insertAllIfAbsent(@Param("userId") Long userId,
+                                 @Param("postIds") Long[] postIds,
+                                 @Param("likedAt") LocalDateTime[] likedAt);
+
+    @Query(value = "DELETE FROM post_likes WHERE user_id = :userId AND post_id IN (:postIds) RETURNING post_id",
+            nativeQuery = true)
+    List<Long> deleteAllByUserIdReturningPostIds(@Param("userId") Long userId,
+                                                 @Param("postIds") Collection<Long> postIds);
+
+    // Seed rows for PostLikeMembership bitmaps: [postId, userId]
+    @Query("SELECT pl.post.id, pl.user.id FROM PostLike pl WHERE pl.post.id IN :postIds")
+    List<Object[]> findLikerRows(@Param("postIds") Collection<Long> postIds);
+
+    // Author affinity for the personalized feed: [authorId, likes this user gave that author's posts]
+    @Query("SELECT pl.post.user.id, COUNT(pl) FROM PostLike pl WHERE pl.user.id = :userId GROUP BY pl.post.user.id")
+    List<Object[]> countLikesByAuthor(@Param("userId") Long userId);
+
     @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId")
     Long countByPostId(@Param("postId") Long postId);
 
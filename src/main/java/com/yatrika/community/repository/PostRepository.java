@@ -1,44 +1,150 @@
 package com.yatrika.community.repository;
 
 import com.yatrika.community.domain.Post;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    Page<Post> findByUserId(Long userId, Pageable pageable);
+    // --- Feed cards: list pages read PostCardRow projections, never the Post graph ---
+
+    String CARD_SELECT = "SELECT new com.yatrika.community.repository.PostCardRow(" +
+            "p.id, p.user.id, p.title, SUBSTRING(p.content, 1, 300), p.coverImageUrl, p.destination, " +
+            "p.tripDurationDays, p.estimatedCost, p.isPublic, p.totalViews, p.totalLikes, p.createdAt) FROM Post p ";
+
+    @Query(value = CARD_SELECT + "WHERE p.user.id = :userId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.user.id = :userId")
+    Page<PostCardRow> findCardsByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    Page<Post> findByIsPublicTrue(Pageable pageable);
+    // excludedUserId is 0 for anonymous callers (ids start at 1)
+    @Query(value = CARD_SELECT + "WHERE p.isPublic = true AND p.user.id <> :excludedUserId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.isPublic = true AND p.user.id <> :excludedUserId")
+    Page<PostCardRow> findPublicCards(@Param("excludedUserId") Long excludedUserId, Pageable pageable);
 
-    Page<Post> findByIsPublicTrueAndUserIdNot(Long excludedUserId, Pageable pageable);
+    // Keyset pages of the public list, newest first, walking idx_posts_public_created; no COUNT
+    @Query(CARD_SELECT + "WHERE p.isPublic = true AND p.user.id <> :excludedUserId " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardRow> findPublicCardsFirstPage(@Param("excludedUserId") Long excludedUserId, Limit limit);
 
-    @Query("SELECT p FROM Post p WHERE " +
+    @Query(CARD_SELECT + "WHERE p.isPublic = true AND p.user.id <> :excludedUserId " +
+            "AND (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardRow> findPublicCardsPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                               @Param("excludedUserId") Long excludedUserId, Limit limit);
+
+    // Fallback for searches while PostSearchIndex has not been built yet
+    String KEYWORD_MATCH = "WHERE p.isPublic = true AND (" +
             "LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(p.destination) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<Post> searchByKeyword(@Param("query") String query, Pageable pageable);
+            "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))";
+
+    @Query(value = CARD_SELECT + KEYWORD_MATCH, countQuery = "SELECT COUNT(p) FROM Post p " + KEYWORD_MATCH)
+    Page<PostCardRow> searchCardsByKeyword(@Param("query") String query, Pageable pageable);
+
+    // Cards for ids ranked elsewhere (trending, feed, search index); callers restore the order.
+    // Visibility is checked here again since those in-memory indexes can briefly lag a post going
+    // private; userId is 0 for anonymous callers
+    @Query(CARD_SELECT + "WHERE p.id IN :ids AND (p.isPublic = true OR p.user.id = :userId)")
+    List<PostCardRow> findVisibleCardsByIdIn(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // First :perPost media of each post in display order, as [postId, id, mediaUrl, mediaType, caption, dayNumber, displayOrder]
+    @Query(value = """
+        SELECT post_id, id, media_url, media_type, caption, day_number, display_order FROM (
+            SELECT m.*, row_number() OVER (PARTITION BY m.post_id ORDER BY m.display_order NULLS LAST, m.id) AS rn
+            FROM post_media m WHERE m.post_id IN (:postIds)
+        ) ranked WHERE rn <= :perPost
+        ORDER BY post_id, rn
+        """, nativeQuery = true)
+    List<Object[]> findMediaHeads(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+
+    // Seed rows for PostTrendingIndex: [id, createdAt, totalLikes, totalViews]
+    @Query("SELECT p.id, p.createdAt, p.totalLikes, p.totalViews FROM Post p " +
+            "WHERE p.isPublic = true AND p.createdAt >= :since")
+    List<Object[]> findTrendingRows(@Param("since") LocalDateTime since);
+
+    // Streamed through a cursor by PostSearchIndex rebuilds: [id, title, content, destination, space-joined tags]
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value = """
+        SELECT p.id, p.title, p.content, p.destination, string_agg(t.tag, ' ')
+        FROM posts p LEFT JOIN post_tags t ON t.post_id = p.id
+        WHERE p.is_public = true
+        GROUP BY p.id
+        """, nativeQuery = true)
+    Stream<Object[]> streamSearchRows();
 
-    @Query("SELECT p FROM Post p WHERE p.isPublic = true ORDER BY p.totalLikes DESC")
-    Page<Post> findTrendingPosts(Pageable pageable);
+    // Seed rows for PostFeedIndex: [id, authorId, createdAt, destination] and [postId, tag]
+    @Query("SELECT p.id, p.user.id, p.createdAt, p.destination FROM Post p " +
+            "WHERE p.isPublic = true AND p.createdAt >= :since")
+    List<Object[]> findFeedRows(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.isPublic = true AND p.createdAt >= :since")
+    List<Object[]> findFeedTagRows(@Param("since") LocalDateTime since);
+
+    // Live counters for PostCounterBroadcaster: [id, totalLikes, totalViews]
+    @Query("SELECT p.id, p.totalLikes, p.totalViews FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findCounterRows(@Param("ids") Collection<Long> ids);
+
+    // The ids among :ids that the caller may see; userId is 0 for anonymous callers
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids AND (p.isPublic = true OR p.user.id = :userId)")
+    List<Long> findVisibleIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
     // Keep EntityGraph for single lookups (not Pageable), it's very efficient here
     @EntityGraph(attributePaths = {"user", "media", "tags", "days"})
     Optional<Post> findById(Long id);
 
+    // Counter moves in the database, so concurrent likes never overwrite each other's increments
+    @Modifying
+    @Query("UPDATE Post p SET p.totalLikes = CASE WHEN p.totalLikes + :delta < 0 THEN 0 ELSE p.totalLikes + :delta END " +
+            "WHERE p.id = :postId")
+    int adjustLikes(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // One statement for the like deltas of a whole replayed batch (PostService.replayLikes)
+    @Modifying
+    @Query(value = """
+        UPDATE posts p SET total_likes = GREATEST(COALESCE(p.total_likes, 0) + v.delta, 0)
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS integer[])) AS v(id, delta)
+        WHERE p.id = v.id
+        """, nativeQuery = true)
+    int adjustLikesBatch(@Param("ids") Long[] ids, @Param("deltas") Integer[] deltas);
+
+    // One statement for a whole write-behind batch of view deltas (PostViewCounter.flush)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE posts p SET total_views = COALESCE(p.total_views, 0) + v.delta
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS integer[])) AS v(id, delta)
+        WHERE p.id = v.id
+        """, nativeQuery = true)
+    int addViews(@Param("ids") Long[] ids, @Param("deltas") Integer[] deltas);
+
     // --- Standard Analytics Queries ---
 
     boolean existsByIdAndUserId(Long postId, Long userId);
 
+    boolean existsByIdAndIsPublicTrue(Long postId);
+
     @Query("SELECT COUNT(p) FROM Post p WHERE p.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
 
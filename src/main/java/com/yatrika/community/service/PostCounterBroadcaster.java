@@ -0,0 +1,260 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.dto.response.PostCountersResponse;
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.service.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes like and view counts of the posts a client has on screen over Server-Sent Events.
+ *
+ * Likes, unlikes and views only mark a subscribed post dirty. Every push interval one query
+ * reads the counters of all dirty posts and each subscriber gets a single "counters" event with
+ * the posts it watches that actually changed, so a post liked a thousand times a second still
+ * costs one read and one event per subscriber per interval. Emitters are async servlet
+ * responses written by a small send pool, never by the scheduler thread; no thread is held per
+ * connection. Updates for a subscriber whose previous send is still running are merged per post
+ * and go out when it finishes, and a subscriber stuck in one send longer than the send timeout
+ * is dropped.
+ */
+@Component
+@Slf4j
+public class PostCounterBroadcaster {
+
+    // Posts one connection may watch; a feed screen shows far fewer
+    public static final int MAX_POSTS_PER_SUBSCRIBER = 100;
+
+    private record Counters(long likes, long views) {}
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<Long> postIds;
+        // Latest update per post not sent yet, and whether a ping is due; guarded by this
+        final Map<Long, PostCountersResponse> pending = new LinkedHashMap<>();
+        boolean pingDue;
+        // Set while a drain task for this subscriber is queued or running
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // Thread writing to the emitter and when it started, guarded by this
+        Thread sendingThread;
+        long sendingSince;
+
+        Subscriber(SseEmitter emitter, Set<Long> postIds) {
+            this.emitter = emitter;
+            this.postIds = postIds;
+        }
+    }
+
+    private final PostRepository postRepository;
+    private final PostViewCounter viewCounter;
+    private final long timeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int maxSubscribers;
+    private final ExecutorService sendExecutor;
+
+    private final Map<Long, Set<Subscriber>> subscribersByPost = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Last counters pushed per subscribed post, so repeat views deduped by PostViewCounter push nothing
+    private final Map<Long, Counters> lastPushed = new ConcurrentHashMap<>();
+
+    public PostCounterBroadcaster(PostRepository postRepository,
+                                  PostViewCounter viewCounter,
+                                  @Value("${app.live.timeout:PT30M}") Duration timeout,
+                                  @Value("${app.live.send-timeout:PT10S}") Duration sendTimeout,
+                                  @Value("${app.live.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${app.live.send-threads:4}") int sendThreads) {
+        this.postRepository = postRepository;
+        this.viewCounter = viewCounter;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutMillis = sendTimeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads, r -> {
+            Thread thread = new Thread(r, "post-counter-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        sendExecutor.shutdownNow();
+    }
+
+    // ================= SUBSCRIBE =================
+
+    // Post ids must already be filtered to what the caller may see (PostService.subscribeToCounters)
+    public SseEmitter subscribe(Collection<Long> postIds) {
+        if (postIds.isEmpty() || postIds.size() > MAX_POSTS_PER_SUBSCRIBER) {
+            throw new AppException("Watch between 1 and " + MAX_POSTS_PER_SUBSCRIBER + " posts");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new AppException("Too many live subscriptions, please poll instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(postIds));
+        subscribers.add(subscriber);
+        subscriber.postIds.forEach(postId ->
+                subscribersByPost.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) return;
+        subscriberCount.decrementAndGet();
+        subscriber.postIds.forEach(postId -> subscribersByPost.computeIfPresent(postId, (id, watching) -> {
+            watching.remove(subscriber);
+            if (!watching.isEmpty()) return watching;
+            lastPushed.remove(postId);
+            return null;
+        }));
+    }
+
+    // ================= CHANGES =================
+
+    public void onCountersChanged(Long postId) {
+        if (!subscribersByPost.containsKey(postId)) return; // nobody is watching
+        AfterCommit.run(() -> dirty.add(postId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.live.push-interval:PT1S}")
+    public void push() {
+        List<Long> changed = new ArrayList<>();
+        for (Long postId : dirty) {
+            if (dirty.remove(postId) && subscribersByPost.containsKey(postId)) changed.add(postId);
+        }
+        if (changed.isEmpty()) return;
+
+        Map<Subscriber, List<PostCountersResponse>> batches = new HashMap<>();
+        for (Object[] row : postRepository.findCounterRows(changed)) {
+            Long postId = (Long) row[0];
+            // Views not flushed yet are counted too, as on the post detail
+            Counters counters = new Counters(asLong(row[1]), asLong(row[2]) + viewCounter.pending(postId));
+            if (counters.equals(lastPushed.put(postId, counters))) continue;
+            PostCountersResponse update = new PostCountersResponse(postId, counters.likes(), counters.views());
+            subscribersByPost.getOrDefault(postId, Set.of())
+                    .forEach(subscriber -> batches.computeIfAbsent(subscriber, s -> new ArrayList<>()).add(update));
+        }
+        batches.forEach((subscriber, updates) -> {
+            synchronized (subscriber) {
+                updates.forEach(update -> subscriber.pending.put(update.getPostId(), update));
+            }
+            schedule(subscriber);
+        });
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            synchronized (subscriber) {
+                subscriber.pingDue = true;
+            }
+            schedule(subscriber);
+        });
+    }
+
+    // ================= SENDING =================
+
+    private void schedule(Subscriber subscriber) {
+        if (dropIfStuck(subscriber)) return;
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                sendExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false); // shutting down
+            }
+        }
+    }
+
+    // Sends whatever is pending for one subscriber until nothing is left; runs on the send pool only
+    private void drain(Subscriber subscriber) {
+        while (subscribers.contains(subscriber)) {
+            List<PostCountersResponse> updates;
+            boolean ping;
+            synchronized (subscriber) {
+                updates = new ArrayList<>(subscriber.pending.values());
+                subscriber.pending.clear();
+                ping = subscriber.pingDue && updates.isEmpty(); // an event keeps the connection alive as well
+                subscriber.pingDue = false;
+                if (updates.isEmpty() && !ping) {
+                    subscriber.scheduled.set(false);
+                    return;
+                }
+            }
+            if (!send(subscriber, updates.isEmpty()
+                    ? SseEmitter.event().comment("ping")
+                    : SseEmitter.event().name("counters").data(updates, MediaType.APPLICATION_JSON))) return;
+        }
+        subscriber.scheduled.set(false);
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        synchronized (subscriber) {
+            subscriber.sendingThread = Thread.currentThread();
+            subscriber.sendingSince = System.currentTimeMillis();
+        }
+        try {
+            subscriber.emitter.send(event);
+            if (subscribers.contains(subscriber)) return true;
+            subscriber.emitter.complete(); // dropped by dropIfStuck while this send was blocked
+            return false;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping live subscriber: {}", e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        } finally {
+            synchronized (subscriber) {
+                subscriber.sendingThread = null;
+            }
+            Thread.interrupted(); // an interrupt from dropIfStuck must not reach the next subscriber's send
+        }
+    }
+
+    // A client that stopped reading blocks its send once the socket buffer fills; give up on it.
+    // The emitter is completed by the blocked send itself: the emitter's methods share one monitor.
+    private boolean dropIfStuck(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.sendingThread == null
+                    || System.currentTimeMillis() - subscriber.sendingSince < sendTimeoutMillis) return false;
+            log.debug("Dropping live subscriber stuck in a send for over {} ms", sendTimeoutMillis);
+            subscriber.sendingThread.interrupt();
+        }
+        unsubscribe(subscriber);
+        return true;
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
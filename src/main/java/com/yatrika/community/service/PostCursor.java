@@ -0,0 +1,56 @@
+package com.yatrika.community.service;
+
+import com.yatrika.shared.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for post lists: the sort key and id of the last post already returned.
+ * The next page is everything strictly after (key, id) in list order, so posts created between
+ * requests never shift it.
+ */
+record PostCursor(char kind, String key, long id) {
+
+    static final char CREATED_AT = 't';
+    static final char SCORE = 's';
+
+    static String ofCreatedAt(LocalDateTime createdAt, long id) {
+        return new PostCursor(CREATED_AT, createdAt.toString(), id).encode();
+    }
+
+    static String ofScore(double score, long id) {
+        return new PostCursor(SCORE, Double.toString(score), id).encode();
+    }
+
+    // Null for a missing cursor (first page)
+    static PostCursor decode(String cursor, char expectedKind) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || parts[0].length() != 1 || parts[0].charAt(0) != expectedKind) {
+                throw new AppException("Invalid cursor");
+            }
+            PostCursor decoded = new PostCursor(expectedKind, parts[1], Long.parseLong(parts[2]));
+            if (expectedKind == CREATED_AT) decoded.createdAt(); else decoded.score(); // validate the key
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException("Invalid cursor");
+        }
+    }
+
+    LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    double score() {
+        return Double.parseDouble(key);
+    }
+
+    private String encode() {
+        String raw = kind + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
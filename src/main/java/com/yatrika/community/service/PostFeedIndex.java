@@ -0,0 +1,288 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory posting lists for the personalized feed. Every recent public post is filed under
+ * each of its terms (lower-cased tags, its destination and the destination's words), under its
+ * author, and under one "all recent" list; each list is kept newest first and capped.
+ *
+ * A feed page reads the head of the lists for the viewer's interests and liked authors plus the
+ * head of the recent list, scores that candidate set and keeps the best offset + size in a
+ * bounded min-heap, so its cost depends on the list caps and not on how many posts exist.
+ *
+ * score = interestWeight * (1 - 2^-matchedTerms)
+ *       + affinityWeight * ln(1 + likesGivenToAuthor) / ln(1 + maxLikesGivenToAnyAuthor)
+ *       + freshnessWeight * 2^(-age / halfLife)
+ */
+@Component
+@Slf4j
+public class PostFeedIndex extends ReplayingPostIndex<PostFeedIndex.Rows> {
+
+    private record Entry(long postId, long authorId, long createdEpochSecond, List<String> tags, Set<String> terms) {}
+
+    public record Viewer(long userId, Collection<String> interests, Map<Long, Long> likesByAuthor) {}
+
+    private record Scored(long postId, double score) {}
+
+    public record Page(List<Long> postIds, int candidates) {}
+
+    record Rows(List<Object[]> posts, Map<Long, List<String>> tagsByPost) {}
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator.comparingLong(Entry::createdEpochSecond).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::postId).reversed());
+
+    private static final Comparator<Scored> BY_SCORE = Comparator.comparingDouble(Scored::score)
+            .thenComparingLong(Scored::postId);
+
+    private static final String RECENT = "";
+    private static final String AUTHOR_PREFIX = "@";
+
+    private final PostRepository postRepository;
+    private final Duration window;
+    private final double halfLifeSeconds;
+    private final int maxPerList;
+    private final int candidatesPerList;
+    private final int maxAuthors;
+    private final double interestWeight;
+    private final double affinityWeight;
+    private final double freshnessWeight;
+
+    // guarded by this
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> postings = new HashMap<>();
+
+    public PostFeedIndex(PostRepository postRepository,
+                         @Value("${app.feed.window:P90D}") Duration window,
+                         @Value("${app.feed.half-life:P3D}") Duration halfLife,
+                         @Value("${app.feed.max-posts-per-list:2000}") int maxPerList,
+                         @Value("${app.feed.candidates-per-list:200}") int candidatesPerList,
+                         @Value("${app.feed.max-affinity-authors:20}") int maxAuthors,
+                         @Value("${app.feed.interest-weight:1.0}") double interestWeight,
+                         @Value("${app.feed.affinity-weight:0.6}") double affinityWeight,
+                         @Value("${app.feed.freshness-weight:0.4}") double freshnessWeight) {
+        this.postRepository = postRepository;
+        this.window = window;
+        this.halfLifeSeconds = halfLife.toSeconds();
+        this.maxPerList = maxPerList;
+        this.candidatesPerList = candidatesPerList;
+        this.maxAuthors = maxAuthors;
+        this.interestWeight = interestWeight;
+        this.affinityWeight = affinityWeight;
+        this.freshnessWeight = freshnessWeight;
+    }
+
+    // ================= READ =================
+
+    // Best-scoring post ids ranked [offset, offset + limit) for this viewer, never the viewer's own posts
+    public Page page(Viewer viewer, int offset, int limit) {
+        ensureLoaded();
+        Set<String> interests = new LinkedHashSet<>();
+        for (String interest : viewer.interests()) interests.addAll(terms(interest));
+
+        long maxLikes = viewer.likesByAuthor().values().stream().mapToLong(Long::longValue).max().orElse(0);
+        List<Long> topAuthors = viewer.likesByAuthor().entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(maxAuthors)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        Map<Long, Entry> candidates = new HashMap<>();
+        synchronized (this) {
+            collect(RECENT, viewer.userId(), candidates);
+            for (String term : interests) collect(term, viewer.userId(), candidates);
+            for (Long authorId : topAuthors) collect(AUTHOR_PREFIX + authorId, viewer.userId(), candidates);
+        }
+
+        int keep = offset + limit;
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Math.max(1, keep + 1), BY_SCORE);
+        for (Entry entry : candidates.values()) {
+            heap.add(new Scored(entry.postId(), score(entry, interests, viewer.likesByAuthor(), maxLikes, now)));
+            if (heap.size() > keep) heap.poll();
+        }
+
+        List<Scored> best = new ArrayList<>(heap);
+        best.sort(BY_SCORE.reversed());
+        List<Long> ids = best.stream().skip(offset).map(Scored::postId).toList();
+        return new Page(ids, candidates.size());
+    }
+
+    // Tags of the given posts as indexed, for TrendingTagTracker; private and older posts are not
+    // indexed and so count towards nothing. Never loads the index: called on the like path, which
+    // must not wait for a full read, so before the first load nothing is found
+    public List<String> tagsOf(Collection<Long> postIds) {
+        if (!isLoaded()) return List.of();
+        List<String> tags = new ArrayList<>();
+        synchronized (this) {
+            for (Long postId : postIds) {
+                Entry entry = entries.get(postId);
+                if (entry != null) tags.addAll(entry.tags());
+            }
+        }
+        return tags;
+    }
+
+    private void collect(String key, long viewerId, Map<Long, Entry> into) {
+        TreeSet<Entry> list = postings.get(key);
+        if (list == null) return;
+        Iterator<Entry> it = list.iterator();
+        for (int taken = 0; it.hasNext() && taken < candidatesPerList; taken++) {
+            Entry entry = it.next();
+            if (entry.authorId() != viewerId) into.putIfAbsent(entry.postId(), entry);
+        }
+    }
+
+    private double score(Entry entry, Set<String> interests, Map<Long, Long> likesByAuthor, long maxLikes, long now) {
+        int matched = 0;
+        for (String term : interests) {
+            if (entry.terms().contains(term)) matched++;
+        }
+        double interest = 1 - Math.pow(2, -matched);
+        double affinity = maxLikes == 0 ? 0
+                : Math.log1p(likesByAuthor.getOrDefault(entry.authorId(), 0L)) / Math.log1p(maxLikes);
+        double freshness = Math.pow(2, -Math.max(0, now - entry.createdEpochSecond()) / halfLifeSeconds);
+        return interestWeight * interest + affinityWeight * affinity + freshnessWeight * freshness;
+    }
+
+    // ================= INCREMENTAL UPDATES =================
+
+    public void onPostSaved(Long postId, Long authorId, LocalDateTime createdAt, boolean isPublic,
+                            Collection<String> tags, String destination) {
+        List<String> tagList = tagList(tags);
+        Set<String> terms = terms(tags, destination);
+        AfterCommit.run(() -> apply(() -> {
+            remove(postId);
+            if (isPublic && createdAt != null && createdAt.isAfter(LocalDateTime.now().minus(window))) {
+                put(new Entry(postId, authorId, createdAt.toEpochSecond(ZoneOffset.UTC), tagList, terms));
+            }
+        }));
+    }
+
+    public void onPostDeleted(Long postId) {
+        AfterCommit.run(() -> apply(() -> remove(postId)));
+    }
+
+    // ================= REBUILD =================
+
+    @Scheduled(fixedDelayString = "${app.feed.rebuild-interval:PT1H}",
+               initialDelayString = "${app.feed.rebuild-interval:PT1H}")
+    public void rebuild() {
+        reload();
+    }
+
+    @Override
+    Rows read() {
+        LocalDateTime since = LocalDateTime.now().minus(window);
+        List<Object[]> posts = postRepository.findFeedRows(since);
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findFeedTagRows(since)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return new Rows(posts, tagsByPost);
+    }
+
+    @Override
+    void swapIn(Rows rows) {
+        entries.clear();
+        postings.clear();
+        for (Object[] row : rows.posts()) {
+            Long postId = (Long) row[0];
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            List<String> tags = rows.tagsByPost().getOrDefault(postId, List.of());
+            put(new Entry(postId, (Long) row[1], createdAt.toEpochSecond(ZoneOffset.UTC),
+                    tagList(tags), terms(tags, (String) row[3])));
+        }
+        log.debug("Feed index rebuilt with {} posts in {} lists", rows.posts().size(), postings.size());
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.postId(), entry);
+        add(RECENT, entry);
+        add(AUTHOR_PREFIX + entry.authorId(), entry);
+        for (String term : entry.terms()) add(term, entry);
+    }
+
+    private void add(String key, Entry entry) {
+        TreeSet<Entry> list = postings.computeIfAbsent(key, k -> new TreeSet<>(NEWEST_FIRST));
+        list.add(entry);
+        if (list.size() > maxPerList) {
+            Entry oldest = list.pollLast();
+            // Still reachable from its other lists; only drop it entirely once no list holds it
+            if (oldest != entry && !heldElsewhere(oldest, key)) entries.remove(oldest.postId());
+        }
+    }
+
+    private boolean heldElsewhere(Entry entry, String droppedFrom) {
+        if (holds(RECENT, entry, droppedFrom) || holds(AUTHOR_PREFIX + entry.authorId(), entry, droppedFrom)) return true;
+        for (String term : entry.terms()) {
+            if (holds(term, entry, droppedFrom)) return true;
+        }
+        return false;
+    }
+
+    private boolean holds(String key, Entry entry, String droppedFrom) {
+        TreeSet<Entry> list = postings.get(key);
+        return !key.equals(droppedFrom) && list != null && list.contains(entry);
+    }
+
+    private void remove(Long postId) {
+        Entry old = entries.remove(postId);
+        if (old == null) return;
+        removeFrom(RECENT, old);
+        removeFrom(AUTHOR_PREFIX + old.authorId(), old);
+        for (String term : old.terms()) removeFrom(term, old);
+    }
+
+    private void removeFrom(String key, Entry entry) {
+        TreeSet<Entry> list = postings.get(key);
+        if (list == null) return;
+        list.remove(entry);
+        if (list.isEmpty()) postings.remove(key);
+    }
+
+    private static List<String> tagList(Collection<String> tags) {
+        return tags == null ? List.of() : tags.stream().filter(Objects::nonNull).toList();
+    }
+
+    // Tags and destination as matchable terms: each lower-cased whole, plus the destination's words
+    private static Set<String> terms(Collection<String> tags, String destination) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (tags != null) tags.forEach(tag -> terms.addAll(terms(tag)));
+        terms.addAll(terms(destination));
+        return Set.copyOf(terms);
+    }
+
+    private static Set<String> terms(String value) {
+        if (value == null || value.isBlank()) return Set.of();
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        terms.add(normalized);
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 3) terms.add(word);
+        }
+        return terms;
+    }
+}
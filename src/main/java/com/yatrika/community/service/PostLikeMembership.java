@@ -0,0 +1,183 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.repository.PostLikeRepository;
+import com.yatrika.shared.service.AfterCommit;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Who liked which post, as one compressed (Roaring) bitmap of liker user ids per post.
+ *
+ * A post's bitmap is loaded from post_likes the first time it is asked about (a whole page of
+ * posts in one query) and then answers "liked by me" and like counts from memory. Bitmaps live in
+ * an access-ordered LRU bounded by their total size in bytes. Like and unlike write through after
+ * their transaction commits; a write that lands while the post's bitmap is being loaded is
+ * queued and replayed on top of the loaded bitmap, so a load can never publish a stale set.
+ */
+@Component
+public class PostLikeMembership {
+
+    private record Change(long userId, boolean liked) {}
+
+    private static final class Slot {
+        final Roaring64Bitmap likers;
+        long bytes;
+
+        Slot(Roaring64Bitmap likers) {
+            this.likers = likers;
+            this.bytes = likers.getLongSizeInBytes();
+        }
+    }
+
+    private final PostLikeRepository postLikeRepository;
+    private final long maxBytes;
+
+    // guarded by this
+    private final LinkedHashMap<Long, Slot> slots = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, List<Change>> loading = new HashMap<>();
+    private long totalBytes;
+
+    public PostLikeMembership(PostLikeRepository postLikeRepository,
+                              @Value("${app.likes.membership-max-bytes:67108864}") long maxBytes) {
+        this.postLikeRepository = postLikeRepository;
+        this.maxBytes = maxBytes;
+    }
+
+    // ================= READ =================
+
+    public boolean isLiked(Long postId, Long userId) {
+        if (userId == null) return false;
+        Roaring64Bitmap likers = bitmaps(List.of(postId)).get(postId);
+        synchronized (this) {
+            return likers.contains(userId);
+        }
+    }
+
+    // The subset of postIds that userId liked, with at most one DB query for posts not in memory yet
+    public Set<Long> likedPostIds(Long userId, Collection<Long> postIds) {
+        if (userId == null || postIds.isEmpty()) return Set.of();
+        Map<Long, Roaring64Bitmap> bitmaps = bitmaps(postIds);
+        Set<Long> liked = new HashSet<>();
+        synchronized (this) {
+            bitmaps.forEach((postId, likers) -> {
+                if (likers.contains(userId)) liked.add(postId);
+            });
+        }
+        return liked;
+    }
+
+    public long likeCount(Long postId) {
+        Roaring64Bitmap likers = bitmaps(List.of(postId)).get(postId);
+        synchronized (this) {
+            return likers.getLongCardinality();
+        }
+    }
+
+    // ================= WRITE-THROUGH =================
+
+    public void onLiked(Long postId, Long userId) {
+        AfterCommit.run(() -> apply(postId, new Change(userId, true)));
+    }
+
+    public void onUnliked(Long postId, Long userId) {
+        AfterCommit.run(() -> apply(postId, new Change(userId, false)));
+    }
+
+    public void onPostDeleted(Long postId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Slot slot = slots.remove(postId);
+                if (slot != null) totalBytes -= slot.bytes;
+            }
+        });
+    }
+
+    private synchronized void apply(Long postId, Change change) {
+        List<Change> queued = loading.get(postId);
+        if (queued != null) queued.add(change);
+        Slot slot = slots.get(postId);
+        if (slot != null) {
+            applyTo(slot, change);
+            evictOverBudget();
+        }
+        // Not in memory: the next load reads the committed row
+    }
+
+    // ================= LOADING =================
+
+    // Bitmaps for all postIds; the missing ones come from one query. Cached bitmaps keep changing
+    // under write-through, so callers read them while holding this monitor.
+    private Map<Long, Roaring64Bitmap> bitmaps(Collection<Long> postIds) {
+        Map<Long, Roaring64Bitmap> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>(); // this call publishes these
+        List<Long> toRead = new ArrayList<>(); // plus posts another call is loading right now
+        synchronized (this) {
+            for (Long postId : postIds) {
+                Slot slot = slots.get(postId);
+                if (slot != null) {
+                    found.put(postId, slot.likers);
+                    continue;
+                }
+                if (!loading.containsKey(postId)) {
+                    loading.put(postId, new ArrayList<>());
+                    toLoad.add(postId);
+                }
+                toRead.add(postId);
+            }
+        }
+        if (toRead.isEmpty()) return found;
+
+        Map<Long, Roaring64Bitmap> loaded = new HashMap<>();
+        toRead.forEach(postId -> loaded.put(postId, new Roaring64Bitmap()));
+        boolean complete = false;
+        try {
+            for (Object[] row : postLikeRepository.findLikerRows(toRead)) {
+                loaded.get((Long) row[0]).addLong((Long) row[1]);
+            }
+            complete = true;
+        } finally {
+            synchronized (this) {
+                for (Long postId : toLoad) {
+                    List<Change> queued = loading.remove(postId);
+                    if (!complete) continue;
+                    Roaring64Bitmap likers = loaded.get(postId);
+                    likers.runOptimize();
+                    Slot slot = new Slot(likers);
+                    totalBytes += slot.bytes;
+                    queued.forEach(change -> applyTo(slot, change));
+                    slots.put(postId, slot);
+                }
+                evictOverBudget();
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    private void applyTo(Slot slot, Change change) {
+        if (change.liked()) slot.likers.addLong(change.userId());
+        else slot.likers.removeLong(change.userId());
+        long bytes = slot.likers.getLongSizeInBytes();
+        totalBytes += bytes - slot.bytes;
+        slot.bytes = bytes;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Slot> it = slots.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+}
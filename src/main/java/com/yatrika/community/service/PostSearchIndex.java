@@ -0,0 +1,364 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.domain.Post;
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.service.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index of public posts on local disk, searched with BM25 over title, tags,
+ * destination and content (in that order of weight).
+ *
+ * Writes are near-real-time: post saves and deletes are applied to the IndexWriter after the
+ * transaction commits and the searcher is reopened from the writer, without waiting for a
+ * Lucene commit (that happens on a timer and at shutdown). A background rebuild streams all
+ * public posts from Postgres through a cursor, stamping each document with the rebuild's
+ * generation, then drops documents from older generations; searches keep being served from
+ * the previous documents while it runs. Posts changed by a near-real-time update while a rebuild
+ * streams are skipped by the stream, since its row may predate the change. A rebuild runs at
+ * every startup and then daily. Until the index holds documents, {@link #isReady()} is false
+ * and callers fall back to the database.
+ */
+@Component
+@Slf4j
+public class PostSearchIndex {
+
+    public record Hit(long postId, float score, Map<String, String> highlights) {}
+
+    public record Result(List<Hit> hits, long totalHits) {}
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+    static final String DESTINATION = "destination";
+    static final String TAGS = "tags";
+    private static final String GENERATION = "generation";
+
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 3f, TAGS, 2f, DESTINATION, 2f, CONTENT, 1f);
+    private static final String[] HIGHLIGHTED = {TITLE, DESTINATION, CONTENT};
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final int SNIPPET_LENGTH = 160;
+
+    // Stored with offsets so the highlighter reads positions from the index instead of re-analyzing
+    private static final FieldType HIGHLIGHTABLE = new FieldType(TextField.TYPE_STORED);
+    static {
+        HIGHLIGHTABLE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        HIGHLIGHTABLE.freeze();
+    }
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Path indexDir;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "post-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object updateLock = new Object();
+
+    // Non-null while a rebuild streams: ids its rows must not overwrite, guarded by updateLock
+    private Set<Long> changedDuringRebuild;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile long generation;
+    private volatile boolean ready;
+    private volatile boolean closing;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.search.index-dir:./data/post-index}") String indexDir) {
+        this.postRepository = postRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.indexDir = Path.of(indexDir);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = FSDirectory.open(indexDir);
+        try {
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        } catch (LockObtainFailedException e) {
+            // Another process (or a second context in the same JVM) owns the directory
+            log.warn("Post search index at {} is locked, using an in-memory index instead", indexDir);
+            directory.close();
+            directory = new ByteBuffersDirectory();
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        }
+        searcherManager = new SearcherManager(writer, null);
+        ready = writer.getDocStats().numDocs > 0;
+    }
+
+    // The documents on disk may miss NRT changes lost in a crash (or be empty in the in-memory
+    // fallback), so every start rebuilds in the background while they keep serving searches
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        rebuildInBackground();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ================= SEARCH =================
+
+    // BM25-ranked public posts [offset, offset + limit) with highlighted title / destination / content snippets
+    public Result search(String text, int offset, int limit) {
+        Query query = buildQuery(text);
+        if (query == null) return new Result(List.of(), 0);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, offset + limit);
+                if (offset >= top.scoreDocs.length) return new Result(List.of(), top.totalHits.value);
+
+                int count = top.scoreDocs.length - offset;
+                int[] docIds = new int[count];
+                for (int i = 0; i < count; i++) docIds[i] = top.scoreDocs[offset + i].doc;
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withMaxNoHighlightPassages(0)
+                        // Snippets are user text wrapped in markup, so everything but the tags is HTML-escaped
+                        .withFormatter(new DefaultPassageFormatter("<b>", "</b>", "… ", true))
+                        .withBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(
+                                BreakIterator.getWordInstance(Locale.ROOT), SNIPPET_LENGTH, 0.5f)) // match centred
+                        .build();
+                Map<String, String[]> snippets = highlighter.highlightFields(HIGHLIGHTED, query, docIds, new int[]{1, 1, 2});
+
+                StoredFields stored = searcher.storedFields();
+                List<Hit> hits = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[offset + i];
+                    Map<String, String> highlights = new HashMap<>();
+                    for (String field : HIGHLIGHTED) {
+                        String snippet = snippets.get(field)[i];
+                        if (snippet != null) highlights.put(field, snippet);
+                    }
+                    long postId = Long.parseLong(stored.document(scoreDoc.doc, Set.of(ID)).get(ID));
+                    hits.add(new Hit(postId, scoreDoc.score, highlights));
+                }
+                return new Result(hits, top.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Post search failed", e);
+        }
+    }
+
+    // Every analyzed query term against every field, boosted per field; BM25 rewards documents matching more of them
+    private Query buildQuery(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream(CONTENT, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) terms.add(term.toString());
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (terms.isEmpty()) return null;
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        BOOSTS.forEach((field, boost) -> {
+            BooleanQuery.Builder perField = new BooleanQuery.Builder();
+            terms.forEach(term -> perField.add(new TermQuery(new Term(field, term)), BooleanClause.Occur.SHOULD));
+            query.add(new BoostQuery(perField.build(), boost), BooleanClause.Occur.SHOULD);
+        });
+        return query.build();
+    }
+
+    // ================= NEAR-REAL-TIME UPDATES =================
+
+    public void onPostSaved(Post post) {
+        Long postId = post.getId();
+        if (!Boolean.TRUE.equals(post.getIsPublic())) {
+            onPostDeleted(postId);
+            return;
+        }
+        String title = post.getTitle();
+        String content = post.getContent();
+        String destination = post.getDestination();
+        String tags = String.join(" ", post.getTags() != null ? post.getTags() : Set.of());
+        // The document is built after commit so it carries the generation of any rebuild already running
+        AfterCommit.run(() -> apply(postId, writer -> writer.updateDocument(new Term(ID, postId.toString()),
+                document(postId, title, content, destination, tags))));
+    }
+
+    public void onPostDeleted(Long postId) {
+        AfterCommit.run(() -> apply(postId, writer -> writer.deleteDocuments(new Term(ID, postId.toString()))));
+    }
+
+    private interface WriterAction {
+        void run(IndexWriter writer) throws IOException;
+    }
+
+    private void apply(Long postId, WriterAction action) {
+        if (closing) return;
+        try {
+            synchronized (updateLock) {
+                if (changedDuringRebuild != null) changedDuringRebuild.add(postId);
+                action.run(writer);
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // The next rebuild brings the document back in line with the database
+            log.warn("Post search index update failed: {}", e.getMessage());
+        }
+    }
+
+    // Makes NRT changes durable; searches see them already, this only bounds what a crash loses
+    @Scheduled(fixedDelayString = "${app.search.commit-interval:PT30S}")
+    public void commit() {
+        if (closing || !writer.hasUncommittedChanges()) return;
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Post search index commit failed: {}", e.getMessage());
+        }
+    }
+
+    // ================= REBUILD =================
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval:P1D}",
+               initialDelayString = "${app.search.rebuild-interval:P1D}")
+    public void rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) return;
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException | IOException e) {
+                log.error("Post search index rebuild failed", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    public void rebuild() throws IOException {
+        long started = System.currentTimeMillis();
+        long current;
+        synchronized (updateLock) {
+            // Generations are wall-clock based so they keep increasing across restarts
+            current = Math.max(started, generation + 1);
+            generation = current;
+            changedDuringRebuild = new HashSet<>();
+        }
+        int[] indexed = {0};
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = postRepository.streamSearchRows()) {
+                    rows.takeWhile(row -> !closing).forEach(row -> {
+                        Long postId = ((Number) row[0]).longValue();
+                        try {
+                            synchronized (updateLock) {
+                                // Already written (or deleted) with the current generation from a newer commit
+                                if (changedDuringRebuild.contains(postId)) return;
+                                writer.updateDocument(new Term(ID, postId.toString()),
+                                        document(postId, (String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        indexed[0]++;
+                    });
+                }
+            });
+            if (closing) return;
+            // Whatever the stream and the updates did not touch is no longer public (or no longer exists)
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, current - 1));
+        } finally {
+            synchronized (updateLock) {
+                changedDuringRebuild = null;
+            }
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+        ready = true;
+        log.info("Post search index rebuilt with {} posts in {} ms", indexed[0], System.currentTimeMillis() - started);
+    }
+
+    private Document document(Long postId, String title, String content, String destination, String tags) {
+        Document document = new Document();
+        document.add(new StringField(ID, postId.toString(), Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation));
+        document.add(new Field(TITLE, title != null ? title : "", HIGHLIGHTABLE));
+        document.add(new Field(CONTENT, content != null ? content : "", HIGHLIGHTABLE));
+        document.add(new Field(DESTINATION, destination != null ? destination : "", HIGHLIGHTABLE));
+        document.add(new TextField(TAGS, tags != null ? tags : "", Field.Store.NO));
+        return document;
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        closing = true;
+        rebuildExecutor.shutdown();
+        rebuildExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close(); // commits pending changes
+        directory.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.domain.Post;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link PostSearchIndex} in step with every Post write, whichever code path saves it.
+ * The index applies the change only after the surrounding transaction commits.
+ */
+@Component
+public class PostSearchIndexListener {
+
+    private final PostSearchIndex searchIndex;
+
+    // Lazy: Hibernate asks for listeners while the EntityManagerFactory that the index depends on is being built
+    public PostSearchIndexListener(@Lazy PostSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onSave(Post post) {
+        searchIndex.onPostSaved(post);
+    }
+
+    @PostRemove
+    void onRemove(Post post) {
+        searchIndex.onPostDeleted(post.getId());
+    }
+}
@@ -2,28 +2,51 @@ package com.yatrika.community.service;
 
 import com.yatrika.community.domain.*;
 import com.yatrika.community.dto.request.CreatePostRequest;
+import com.yatrika.community.dto.request.LikeReplayRequest;
 import com.yatrika.community.dto.request.UpdatePostRequest;
+import com.yatrika.community.dto.response.BulkLikeResult;
+import com.yatrika.community.dto.response.PostCardResponse;
 import com.yatrika.community.dto.response.PostDayResponse;
 import com.yatrika.community.dto.response.PostMediaResponse;
 import com.yatrika.community.dto.response.PostResponse;
 import com.yatrika.community.mapper.PostMapper;
+import com.yatrika.community.repository.PostCardRow;
 import com.yatrika.community.repository.PostLikeRepository;
 import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.domain.ViewedEntityType;
+import com.yatrika.shared.dto.CursorPageResponse;
+import com.yatrika.shared.dto.UniqueViewersResponse;
 import com.yatrika.shared.exception.AppException;
 import com.yatrika.shared.exception.ResourceNotFoundException;
 import com.yatrika.shared.service.FileStorageService;
+import com.yatrika.shared.service.TrendingTagTracker;
+import com.yatrika.shared.service.UniqueViewerService;
 import com.yatrika.user.domain.User;
+import com.yatrika.user.dto.response.UserSummaryResponse;
+import com.yatrika.user.repository.UserRepository;
 import com.yatrika.user.service.CurrentUserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +59,21 @@ public class PostService {
     private final CurrentUserService currentUserService;
     private final PostMapper postMapper;
     private final FileStorageService fileStorageService;
+    private final PostViewCounter viewCounter;
+    private final PostTrendingIndex trendingIndex;
+    private final PostFeedIndex feedIndex;
+    private final PostSearchIndex searchIndex;
+    private final PostLikeMembership likeMembership;
+    private final UserRepository userRepository;
+    private final UniqueViewerService uniqueViewerService;
+    private final TrendingTagTracker trendingTags;
+    private final PostCounterBroadcaster counterBroadcaster;
+
+    private static final int SNIPPET_LENGTH = 240; // the card projection reads 300 characters of content
+    private static final int MAX_LIKE_REPLAY = 500;
+
+    @Value("${app.community.card-media-count:3}")
+    private int cardMediaCount;
 
     @Transactional
     public PostResponse createPost(CreatePostRequest request) {
@@ -81,6 +119,12 @@ public class PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        trendingIndex.onPostSaved(savedPost.getId(), savedPost.getCreatedAt(), Boolean.TRUE.equals(savedPost.getIsPublic()), 0, 0);
+        feedIndex.onPostSaved(savedPost.getId(), currentUser.getId(), savedPost.getCreatedAt(),
+                Boolean.TRUE.equals(savedPost.getIsPublic()), savedPost.getTags(), savedPost.getDestination());
+        if (Boolean.TRUE.equals(savedPost.getIsPublic())) {
+            trendingTags.onPostPublished(savedPost.getTags());
+        }
         log.info("Post created: {} by user {}", post.getTitle(), currentUser.getId());
         return enrichPostResponse(savedPost);
     }
@@ -90,8 +134,8 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
-        User currentUser = currentUserService.getCurrentUserEntity();
-        if (!post.getUser().getId().equals(currentUser.getId())) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (!post.getUser().getId().equals(userId)) {
             throw new AppException("You can only update your own posts");
         }
 
@@ -129,6 +173,11 @@ public class PostService {
         if (request.getEstimatedCost() != null) post.setEstimatedCost(request.getEstimatedCost());
 
         Post updatedPost = postRepository.save(post);
+        trendingIndex.onPostSaved(updatedPost.getId(), updatedPost.getCreatedAt(), Boolean.TRUE.equals(updatedPost.getIsPublic()),
+                updatedPost.getTotalLikes() != null ? updatedPost.getTotalLikes() : 0,
+                updatedPost.getTotalViews() != null ? updatedPost.getTotalViews() : 0);
+        feedIndex.onPostSaved(updatedPost.getId(), userId, updatedPost.getCreatedAt(),
+                Boolean.TRUE.equals(updatedPost.getIsPublic()), updatedPost.getTags(), updatedPost.getDestination());
         return enrichPostResponse(updatedPost);
     }
 
@@ -137,8 +186,8 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
-        User currentUser = currentUserService.getCurrentUserEntity();
-        if (!post.getUser().getId().equals(currentUser.getId())) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (!post.getUser().getId().equals(userId)) {
             throw new AppException("You can only delete your own posts");
         }
 
@@ -148,6 +197,9 @@ public class PostService {
         post.getMedia().forEach(m -> urlsToDelete.add(m.getMediaUrl()));
 
         postRepository.delete(post);
+        trendingIndex.onPostDeleted(postId);
+        feedIndex.onPostDeleted(postId);
+        likeMembership.onPostDeleted(postId);
 
         // Physical deletion after DB success
         urlsToDelete.forEach(fileStorageService::deleteFile);
@@ -158,79 +210,330 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
-        User currentUser = currentUserService.getCurrentUserEntityOrNull();
+        Long userId = currentUserService.getCurrentUserIdOrNull();
         if (!post.getIsPublic()) {
-            if (currentUser == null || !post.getUser().getId().equals(currentUser.getId())) {
+            if (userId == null || !post.getUser().getId().equals(userId)) {
                 throw new AppException("This post is private");
             }
         }
 
-        post.incrementViews();
-        postRepository.save(post);
-        return enrichPostResponse(post);
+        // Write-behind: the view is counted in memory and flushed in batches, this read writes nothing
+        String viewerKey = uniqueViewerService.currentViewerKey();
+        viewCounter.record(postId, viewerKey);
+        uniqueViewerService.record(ViewedEntityType.POST, postId, viewerKey);
+        counterBroadcaster.onCountersChanged(postId);
+        PostResponse response = enrichPostResponse(post);
+        // The membership bitmap was just loaded for the liked flag, so the exact count costs nothing
+        response.setTotalLikes((int) likeMembership.likeCount(postId));
+        int stored = response.getTotalViews() != null ? response.getTotalViews() : 0;
+        response.setTotalViews(stored + viewCounter.pending(postId));
+        return response;
     }
 
-    public Page<PostResponse> getMyPosts(Pageable pageable) {
-        User currentUser = currentUserService.getCurrentUserEntity();
-        return postRepository.findByUserId(currentUser.getId(), pageable).map(this::enrichPostResponse);
+    // Distinct viewers over [from, to]; visible to whoever can see the post
+    public UniqueViewersResponse getUniqueViewers(Long postId, LocalDate from, LocalDate to) {
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        boolean visible = postRepository.existsByIdAndIsPublicTrue(postId)
+                || (userId != null && postRepository.existsByIdAndUserId(postId, userId));
+        if (!visible) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        return uniqueViewerService.uniqueViewers(ViewedEntityType.POST, postId, from, to);
+    }
+
+    // Live like/view counters for the posts on screen; ids the caller cannot see are dropped
+    public SseEmitter subscribeToCounters(List<Long> postIds) {
+        Set<Long> requested = postIds == null ? Set.of() : new HashSet<>(postIds);
+        if (requested.isEmpty()) {
+            throw new AppException("At least one post id is required");
+        }
+        // Checked before the visibility query so a huge id list never reaches the database
+        if (requested.size() > PostCounterBroadcaster.MAX_POSTS_PER_SUBSCRIBER) {
+            throw new AppException("At most " + PostCounterBroadcaster.MAX_POSTS_PER_SUBSCRIBER
+                    + " posts can be watched at once");
+        }
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        List<Long> visible = postRepository.findVisibleIds(requested, userId != null ? userId : 0L);
+        if (visible.isEmpty()) {
+            // Nothing to push, so do not hold a connection slot open for it
+            throw new ResourceNotFoundException("None of the requested posts are available");
+        }
+        return counterBroadcaster.subscribe(visible);
     }
 
-    public Page<PostResponse> getPublicPosts(Pageable pageable) {
-        User currentUser = currentUserService.getCurrentUserEntityOrNull();
-        Page<Post> posts = (currentUser != null)
-                ? postRepository.findByIsPublicTrueAndUserIdNot(currentUser.getId(), pageable)
-                : postRepository.findByIsPublicTrue(pageable);
-        return posts.map(this::enrichPostResponse);
+    public Page<PostCardResponse> getMyPosts(Pageable pageable) {
+        Long userId = currentUserService.getCurrentUserId();
+        return toCardPage(postRepository.findCardsByUserId(userId, pageable), userId);
     }
 
-    public Page<PostResponse> searchPosts(String query, Pageable pageable) {
-        // If the query is null or just whitespace, return a default list or empty page
+    public Page<PostCardResponse> getPublicPosts(Pageable pageable) {
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        return toCardPage(postRepository.findPublicCards(userId != null ? userId : 0L, pageable), userId);
+    }
+
+    // Keyset mode of getPublicPosts: stable under concurrent inserts and constant cost at any depth
+    public CursorPageResponse<PostCardResponse> getPublicPostsAfter(String cursor, int size) {
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        PostCursor after = PostCursor.decode(cursor, PostCursor.CREATED_AT);
+        Long excluded = userId != null ? userId : 0L;
+        List<PostCardRow> rows = after == null
+                ? postRepository.findPublicCardsFirstPage(excluded, Limit.of(size + 1))
+                : postRepository.findPublicCardsPageAfter(after.createdAt(), after.id(), excluded, Limit.of(size + 1));
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+        PostCardRow last = hasNext ? rows.get(rows.size() - 1) : null;
+        return new CursorPageResponse<>(toCards(rows, userId),
+                hasNext ? PostCursor.ofCreatedAt(last.createdAt(), last.id()) : null, hasNext);
+    }
+
+    // BM25 relevance order from the Lucene index, with highlighted snippets; the LIKE query only until the index is built
+    public Page<PostCardResponse> searchPosts(String query, Pageable pageable) {
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        // If the query is null or just whitespace, return the latest public posts
         if (query == null || query.trim().isEmpty()) {
-            return postRepository.findAll(pageable).map(this::convertToResponse);
+            return toCardPage(postRepository.findPublicCards(0L, pageable), userId);
+        }
+        if (pageable.getPageNumber() == 0) {
+            trendingTags.onKeywordSearched(query); // once per search, not per page scrolled
+        }
+        if (!searchIndex.isReady()) {
+            return toCardPage(postRepository.searchCardsByKeyword(query, pageable), userId);
         }
 
-        // Otherwise, perform the filtered search
-        return postRepository.searchByKeyword(query, pageable).map(this::convertToResponse);
+        PostSearchIndex.Result result = searchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Long, PostSearchIndex.Hit> hits = result.hits().stream()
+                .collect(Collectors.toMap(PostSearchIndex.Hit::postId, Function.identity()));
+        List<PostCardResponse> cards = cardsInOrder(result.hits().stream().map(PostSearchIndex.Hit::postId).toList(), userId);
+        cards.forEach(card -> card.setHighlights(hits.get(card.getId()).highlights()));
+        return new PageImpl<>(cards, pageable, result.totalHits());
     }
 
-    public Page<PostResponse> getTrendingPosts(Pageable pageable) {
-        return postRepository.findTrendingPosts(pageable).map(this::enrichPostResponse);
+    // Top-N read from the in-memory ranking, then one IN query for the page's cards
+    public Page<PostCardResponse> getTrendingPosts(Pageable pageable) {
+        List<Long> ids = trendingIndex.top((int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(cardsInOrder(ids, currentUserService.getCurrentUserIdOrNull()), pageable, trendingIndex.size());
     }
 
+    // Personalized: candidates from the feed index's posting lists for the caller's interests and
+    // liked authors, scored and cut to the page there, then one IN query for the page's cards
+    public Page<PostCardResponse> getFeed(Pageable pageable) {
+        Long userId = currentUserService.getCurrentUserId();
+        Map<Long, Long> likesByAuthor = new HashMap<>();
+        for (Object[] row : postLikeRepository.countLikesByAuthor(userId)) {
+            likesByAuthor.put((Long) row[0], (Long) row[1]);
+        }
+        PostFeedIndex.Page page = feedIndex.page(
+                new PostFeedIndex.Viewer(userId, userRepository.findInterestsByUserId(userId), likesByAuthor),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(cardsInOrder(page.postIds(), userId), pageable, page.candidates());
+    }
+
+    // Keyset mode of getTrendingPosts, keyed on the ranking score
+    public CursorPageResponse<PostCardResponse> getTrendingPostsAfter(String cursor, int size) {
+        PostCursor after = PostCursor.decode(cursor, PostCursor.SCORE);
+        List<PostTrendingIndex.Ranked> ranked = trendingIndex.after(
+                after != null ? after.score() : null, after != null ? after.id() : null, size + 1);
+
+        boolean hasNext = ranked.size() > size;
+        if (hasNext) ranked = ranked.subList(0, size);
+        List<Long> ids = ranked.stream().map(PostTrendingIndex.Ranked::postId).toList();
+        PostTrendingIndex.Ranked last = hasNext ? ranked.get(ranked.size() - 1) : null;
+        return new CursorPageResponse<>(cardsInOrder(ids, currentUserService.getCurrentUserIdOrNull()),
+                hasNext ? PostCursor.ofScore(last.score(), last.postId()) : null, hasNext);
+    }
+
+    // ================= FEED CARDS =================
+
+    private Page<PostCardResponse> toCardPage(Page<PostCardRow> rows, Long viewerId) {
+        return new PageImpl<>(toCards(rows.getContent(), viewerId), rows.getPageable(), rows.getTotalElements());
+    }
+
+    // Cards for ids ranked elsewhere, in that order; ids whose post is gone or not visible to the viewer are skipped
+    private List<PostCardResponse> cardsInOrder(List<Long> ids, Long viewerId) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, PostCardRow> byId = postRepository.findVisibleCardsByIdIn(ids, viewerId != null ? viewerId : 0L).stream()
+                .collect(Collectors.toMap(PostCardRow::id, Function.identity()));
+        return toCards(ids.stream().map(byId::get).filter(Objects::nonNull).toList(), viewerId);
+    }
+
+    // Projection rows -> cards with one batched query each for authors, media heads and "liked by me"
+    private List<PostCardResponse> toCards(List<PostCardRow> rows, Long viewerId) {
+        if (rows.isEmpty()) return List.of();
+        List<Long> postIds = rows.stream().map(PostCardRow::id).toList();
+
+        Map<Long, UserSummaryResponse> authors = new HashMap<>();
+        for (Object[] row : userRepository.findSummaryRowsByIdIn(rows.stream().map(PostCardRow::authorId).distinct().toList())) {
+            UserSummaryResponse author = new UserSummaryResponse();
+            author.setId((Long) row[0]);
+            author.setUsername((String) row[1]);
+            author.setProfileImageUrl((String) row[2]);
+            authors.put(author.getId(), author);
+        }
+
+        Map<Long, List<PostMediaResponse>> media = new HashMap<>();
+        for (Object[] row : postRepository.findMediaHeads(postIds, cardMediaCount)) {
+            media.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>()).add(new PostMediaResponse(
+                    ((Number) row[1]).longValue(), (String) row[2], (String) row[3], (String) row[4],
+                    row[5] != null ? ((Number) row[5]).intValue() : null,
+                    row[6] != null ? ((Number) row[6]).intValue() : null));
+        }
+
+        Set<Long> liked = likeMembership.likedPostIds(viewerId, postIds);
+
+        return rows.stream().map(row -> {
+            PostCardResponse card = postMapper.toCard(row);
+            card.setSnippet(snippet(row.snippet()));
+            card.setUser(authors.get(row.authorId()));
+            card.setMedia(media.getOrDefault(row.id(), List.of()));
+            card.setIsLikedByCurrentUser(liked.contains(row.id()));
+            return card;
+        }).toList();
+    }
+
+    // Cuts the projected content prefix back to a whole word
+    private static String snippet(String prefix) {
+        if (prefix == null || prefix.length() <= SNIPPET_LENGTH) return prefix;
+        int cut = prefix.lastIndexOf(' ', SNIPPET_LENGTH);
+        return prefix.substring(0, cut > SNIPPET_LENGTH / 2 ? cut : SNIPPET_LENGTH).stripTrailing() + "…";
+    }
+
+    // Like = one guarded INSERT ... ON CONFLICT DO NOTHING, plus a counter UPDATE only if a row went in.
+    // Nothing is loaded; the existence check only runs to explain a no-op.
     @Transactional
     public void likePost(Long postId) {
-        User currentUser = currentUserService.getCurrentUserEntity();
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
-
-        if (postLikeRepository.existsByPostIdAndUserId(postId, currentUser.getId())) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (postLikeRepository.insertIfAbsent(postId, userId, LocalDateTime.now()) == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post", "id", postId);
+            }
             throw new AppException("You have already liked this post");
         }
-
-        postLikeRepository.save(PostLike.builder().post(post).user(currentUser).build());
-        post.incrementLikes();
-        postRepository.save(post);
+        postRepository.adjustLikes(postId, 1);
+        trendingIndex.onLikesChanged(postId, 1);
+        likeMembership.onLiked(postId, userId);
+        counterBroadcaster.onCountersChanged(postId);
+        trendingTags.onPostLiked(() -> feedIndex.tagsOf(List.of(postId)));
     }
 
     @Transactional
     public void unlikePost(Long postId) {
-        User currentUser = currentUserService.getCurrentUserEntity();
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+        Long userId = currentUserService.getCurrentUserId();
+        if (postLikeRepository.deleteByPostIdAndUserId(postId, userId) == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post", "id", postId);
+            }
+            throw new AppException("You have not liked this post");
+        }
+        postRepository.adjustLikes(postId, -1);
+        trendingIndex.onLikesChanged(postId, -1);
+        likeMembership.onUnliked(postId, userId);
+        counterBroadcaster.onCountersChanged(postId);
+    }
+
+    /**
+     * Replays likes and unlikes queued by an offline client, in list order. Only the last action per
+     * post counts; the batch is applied as one insert, one delete and one counter update, and every
+     * item reports what became of it instead of failing the batch.
+     */
+    @Transactional
+    public BulkLikeResult replayLikes(List<LikeReplayRequest> actions) {
+        if (actions == null || actions.isEmpty()) {
+            throw new AppException("At least one like action is required");
+        }
+        if (actions.size() > MAX_LIKE_REPLAY) {
+            throw new AppException("At most " + MAX_LIKE_REPLAY + " like actions can be replayed at once");
+        }
+        Long userId = currentUserService.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Index of the action that decides each post's final state
+        Map<Long, Integer> decisive = new LinkedHashMap<>();
+        for (int i = 0; i < actions.size(); i++) {
+            LikeReplayRequest action = actions.get(i);
+            if (action != null && action.getPostId() != null && action.getAction() != null) {
+                decisive.put(action.getPostId(), i);
+            }
+        }
+        Set<Long> existing = decisive.isEmpty() ? Set.of() : new HashSet<>(postRepository.findExistingIds(decisive.keySet()));
+
+        List<Long> toLike = new ArrayList<>();
+        List<LocalDateTime> likedAt = new ArrayList<>();
+        List<Long> toUnlike = new ArrayList<>();
+        decisive.forEach((postId, index) -> {
+            if (!existing.contains(postId)) return;
+            LikeReplayRequest action = actions.get(index);
+            if (action.getAction() == LikeReplayRequest.Action.LIKE) {
+                LocalDateTime at = action.getClientTimestamp();
+                toLike.add(postId);
+                likedAt.add(at != null && at.isBefore(now) ? at : now);
+            } else {
+                toUnlike.add(postId);
+            }
+        });
+
+        Set<Long> liked = toLike.isEmpty() ? Set.of() : new HashSet<>(postLikeRepository.insertAllIfAbsent(
+                userId, toLike.toArray(new Long[0]), likedAt.toArray(new LocalDateTime[0])));
+        Set<Long> unliked = toUnlike.isEmpty() ? Set.of() : new HashSet<>(
+                postLikeRepository.deleteAllByUserIdReturningPostIds(userId, toUnlike));
+
+        if (!liked.isEmpty() || !unliked.isEmpty()) {
+            List<Long> ids = new ArrayList<>(liked.size() + unliked.size());
+            List<Integer> deltas = new ArrayList<>(liked.size() + unliked.size());
+            liked.forEach(postId -> { ids.add(postId); deltas.add(1); });
+            unliked.forEach(postId -> { ids.add(postId); deltas.add(-1); });
+            postRepository.adjustLikesBatch(ids.toArray(new Long[0]), deltas.toArray(new Integer[0]));
+
+            liked.forEach(postId -> {
+                trendingIndex.onLikesChanged(postId, 1);
+                likeMembership.onLiked(postId, userId);
+                counterBroadcaster.onCountersChanged(postId);
+            });
+            unliked.forEach(postId -> {
+                trendingIndex.onLikesChanged(postId, -1);
+                likeMembership.onUnliked(postId, userId);
+                counterBroadcaster.onCountersChanged(postId);
+            });
+            if (!liked.isEmpty()) {
+                trendingTags.onPostLiked(() -> feedIndex.tagsOf(liked));
+            }
+        }
 
-        PostLike postLike = postLikeRepository.findByPostIdAndUserId(postId, currentUser.getId())
-                .orElseThrow(() -> new AppException("You have not liked this post"));
+        List<BulkLikeResult.Item> results = new ArrayList<>(actions.size());
+        int applied = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            LikeReplayRequest action = actions.get(i);
+            BulkLikeResult.Item.ItemBuilder item = BulkLikeResult.Item.builder().index(i);
+            if (action == null || action.getPostId() == null || action.getAction() == null) {
+                results.add(item.outcome(BulkLikeResult.Outcome.INVALID).build());
+                continue;
+            }
+            Long postId = action.getPostId();
+            item.postId(postId).action(action.getAction());
+            if (!existing.contains(postId)) {
+                results.add(item.outcome(BulkLikeResult.Outcome.NOT_FOUND).build());
+                continue;
+            }
+            boolean likedAtEnd = actions.get(decisive.get(postId)).getAction() == LikeReplayRequest.Action.LIKE;
+            item.liked(likedAtEnd);
+            if (decisive.get(postId) != i) {
+                item.outcome(BulkLikeResult.Outcome.SUPERSEDED);
+            } else if (liked.contains(postId) || unliked.contains(postId)) {
+                item.outcome(BulkLikeResult.Outcome.APPLIED);
+                applied++;
+            } else {
+                item.outcome(BulkLikeResult.Outcome.UNCHANGED);
+            }
+            results.add(item.build());
+        }
 
-        postLikeRepository.delete(postLike);
-        post.decrementLikes();
-        postRepository.save(post);
+        log.info("Replayed {} like actions for user {}: {} applied", actions.size(), userId, applied);
+        return BulkLikeResult.builder().total(actions.size()).applied(applied).results(results).build();
     }
 
     private PostResponse enrichPostResponse(Post post) {
         PostResponse response = postMapper.toResponse(post);
-        User currentUser = currentUserService.getCurrentUserEntityOrNull();
-        boolean isLiked = currentUser != null && postLikeRepository.existsByPostIdAndUserId(post.getId(), currentUser.getId());
-        response.setIsLikedByCurrentUser(isLiked);
+        response.setIsLikedByCurrentUser(likeMembership.isLiked(post.getId(), currentUserService.getCurrentUserIdOrNull()));
         return response;
     }
 
@@ -242,20 +545,6 @@ public class PostService {
         return postLikeRepository.countByUserId(userId);
     }
 
-    private PostResponse convertToResponse(Post post) {
-        // 1. Let the mapper handle the heavy lifting
-        // MapStruct automatically converts Entity Set -> DTO List
-        PostResponse response = postMapper.toResponse(post);
-
-        // 2. Add the 'Like' status (if not handled in mapper)
-        User currentUser = currentUserService.getCurrentUserEntityOrNull();
-        boolean isLiked = currentUser != null &&
-                postLikeRepository.existsByPostIdAndUserId(post.getId(), currentUser.getId());
-        response.setIsLikedByCurrentUser(isLiked);
-
-        return response;
-    }
-
 //    private PostResponse convertToResponse(Post post) {
 //        // Better yet: Use the mapper you already have!
 //        PostResponse response = postMapper.toResponse(post);
@@ -0,0 +1,169 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory trending ranking of recent public posts.
+ *
+ * score = ln(1 + likes * likeWeight + views * viewWeight) + ln(2) * createdAt / halfLife
+ *
+ * This is gravity with exponential decay, written in log space: a post needs twice the
+ * engagement of one created a half-life later to rank level with it. Because the time term
+ * depends on the creation time and not on "now", the order between two posts never changes
+ * as time passes. Only an engagement change moves a post, so the set stays sorted with an
+ * O(log n) re-insert per like/view batch and /trending is a walk over its head.
+ */
+@Component
+@Slf4j
+public class PostTrendingIndex extends ReplayingPostIndex<List<Object[]>> {
+
+    private record Entry(long postId, double score, long createdEpochSecond, int likes, long views) {}
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::postId).reversed());
+
+    private final PostRepository postRepository;
+    private final Duration window;
+    private final double halfLifeSeconds;
+    private final double likeWeight;
+    private final double viewWeight;
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(BY_SCORE);
+    private final Map<Long, Entry> entries = new HashMap<>(); // guarded by this
+
+    public PostTrendingIndex(PostRepository postRepository,
+                             @Value("${app.trending.window:P30D}") Duration window,
+                             @Value("${app.trending.half-life:PT24H}") Duration halfLife,
+                             @Value("${app.trending.like-weight:1.0}") double likeWeight,
+                             @Value("${app.trending.view-weight:0.1}") double viewWeight) {
+        this.postRepository = postRepository;
+        this.window = window;
+        this.halfLifeSeconds = halfLife.toSeconds();
+        this.likeWeight = likeWeight;
+        this.viewWeight = viewWeight;
+    }
+
+    // ================= READ =================
+
+    // Post ids ranked [offset, offset + limit)
+    public List<Long> top(int offset, int limit) {
+        ensureLoaded();
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Entry> it = ranking.iterator();
+        for (int skipped = 0; it.hasNext() && skipped < offset; skipped++) it.next();
+        while (it.hasNext() && ids.size() < limit) ids.add(it.next().postId());
+        return ids;
+    }
+
+    public record Ranked(long postId, double score) {}
+
+    // Keyset read: the next limit posts ranked below (score, postId), or from the top when postId is null
+    public List<Ranked> after(Double score, Long postId, int limit) {
+        ensureLoaded();
+        Iterator<Entry> it = postId == null
+                ? ranking.iterator()
+                : ranking.tailSet(new Entry(postId, score, 0, 0, 0), false).iterator();
+        List<Ranked> page = new ArrayList<>(limit);
+        while (it.hasNext() && page.size() < limit) {
+            Entry entry = it.next();
+            page.add(new Ranked(entry.postId(), entry.score()));
+        }
+        return page;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return ranking.size();
+    }
+
+    // ================= INCREMENTAL UPDATES =================
+
+    public void onPostSaved(Long postId, LocalDateTime createdAt, boolean isPublic, int likes, long views) {
+        AfterCommit.run(() -> apply(() -> {
+            remove(postId);
+            if (isPublic && createdAt != null && createdAt.isAfter(LocalDateTime.now().minus(window))) {
+                put(postId, createdAt.toEpochSecond(ZoneOffset.UTC), likes, views);
+            }
+        }));
+    }
+
+    public void onPostDeleted(Long postId) {
+        AfterCommit.run(() -> apply(() -> remove(postId)));
+    }
+
+    public void onLikesChanged(Long postId, int delta) {
+        AfterCommit.run(() -> apply(() -> {
+            Entry entry = entries.get(postId);
+            if (entry == null) return; // private or outside the window
+            remove(postId);
+            put(postId, entry.createdEpochSecond(), Math.max(0, entry.likes() + delta), entry.views());
+        }));
+    }
+
+    // Called by the view counter after each flushed batch
+    public void onViewsFlushed(Map<Long, Integer> deltas) {
+        Map<Long, Integer> batch = Map.copyOf(deltas);
+        apply(() -> batch.forEach((postId, delta) -> {
+            Entry entry = entries.get(postId);
+            if (entry == null) return;
+            remove(postId);
+            put(postId, entry.createdEpochSecond(), entry.likes(), entry.views() + delta);
+        }));
+    }
+
+    // ================= REBUILD =================
+
+    // Drops posts that aged out of the window and corrects any drift from missed events
+    @Scheduled(fixedDelayString = "${app.trending.rebuild-interval:PT1H}",
+               initialDelayString = "${app.trending.rebuild-interval:PT1H}")
+    public void rebuild() {
+        reload();
+    }
+
+    @Override
+    List<Object[]> read() {
+        return postRepository.findTrendingRows(LocalDateTime.now().minus(window));
+    }
+
+    @Override
+    void swapIn(List<Object[]> rows) {
+        ranking.clear();
+        entries.clear();
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = (LocalDateTime) row[1];
+            put((Long) row[0], createdAt.toEpochSecond(ZoneOffset.UTC),
+                    row[2] != null ? ((Number) row[2]).intValue() : 0,
+                    row[3] != null ? ((Number) row[3]).longValue() : 0);
+        }
+        log.debug("Trending index rebuilt with {} posts", rows.size());
+    }
+
+    private void put(long postId, long createdEpochSecond, int likes, long views) {
+        double engagement = likes * likeWeight + views * viewWeight;
+        double score = Math.log1p(Math.max(0, engagement)) + Math.log(2) * createdEpochSecond / halfLifeSeconds;
+        Entry entry = new Entry(postId, score, createdEpochSecond, likes, views);
+        entries.put(postId, entry);
+        ranking.add(entry);
+    }
+
+    private void remove(Long postId) {
+        Entry old = entries.remove(postId);
+        if (old != null) ranking.remove(old);
+    }
+}
@@ -0,0 +1,141 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Write-behind post view counts. A read records the view in one of N lock-striped in-memory
+ * stripes (picked by post id), after dropping repeats from the same viewer within the dedup
+ * window; a scheduled flush drains all stripes and applies the deltas as one batched UPDATE.
+ * Post detail reads therefore never write the posts row.
+ */
+@Component
+@Slf4j
+public class PostViewCounter {
+
+    private static final class Stripe {
+        Map<Long, Integer> pending = new HashMap<>();
+        // "postId:viewer" -> epoch millis until which repeat views are ignored; insertion order = expiry order
+        final LinkedHashMap<String, Long> seen = new LinkedHashMap<>();
+    }
+
+    private final PostRepository postRepository;
+    private final PostTrendingIndex trendingIndex;
+    private final Stripe[] stripes;
+    private final long dedupWindowMillis;
+    private final int maxSeenPerStripe;
+
+    public PostViewCounter(PostRepository postRepository,
+                           PostTrendingIndex trendingIndex,
+                           @Value("${app.views.stripes:64}") int stripeCount,
+                           @Value("${app.views.dedup-window:PT30M}") Duration dedupWindow,
+                           @Value("${app.views.max-tracked-viewers:200000}") int maxTrackedViewers) {
+        this.postRepository = postRepository;
+        this.trendingIndex = trendingIndex;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1; // power of two for masking
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) stripes[i] = new Stripe();
+        this.dedupWindowMillis = dedupWindow.toMillis();
+        this.maxSeenPerStripe = Math.max(16, maxTrackedViewers / size);
+    }
+
+    /**
+     * Counts a view unless this viewer (user id or guest id) already viewed the post within the window.
+     * A null viewer key (no user, no guest id) is always counted.
+     */
+    public void record(Long postId, String viewerKey) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeOf(postId);
+        synchronized (stripe) {
+            if (viewerKey != null) {
+                String key = postId + ":" + viewerKey;
+                Long until = stripe.seen.get(key);
+                if (until != null && until > now) return;
+                stripe.seen.remove(key); // re-insert at the tail so iteration stays in expiry order
+                stripe.seen.put(key, now + dedupWindowMillis);
+                evictExpired(stripe, now);
+            }
+            stripe.pending.merge(postId, 1, Integer::sum);
+        }
+    }
+
+    // Views recorded but not flushed yet, so a detail response can show an up-to-date count
+    public int pending(Long postId) {
+        Stripe stripe = stripeOf(postId);
+        synchronized (stripe) {
+            return stripe.pending.getOrDefault(postId, 0);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:PT10S}")
+    public void flush() {
+        Map<Long, Integer> batch = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            Map<Long, Integer> drained;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) {
+                    evictExpired(stripe, now);
+                    continue;
+                }
+                drained = stripe.pending;
+                stripe.pending = new HashMap<>();
+                evictExpired(stripe, now);
+            }
+            batch.putAll(drained); // stripes partition post ids, so no key appears twice
+        }
+        if (batch.isEmpty()) return;
+
+        Long[] ids = new Long[batch.size()];
+        Integer[] deltas = new Integer[batch.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : batch.entrySet()) {
+            ids[i] = entry.getKey();
+            deltas[i++] = entry.getValue();
+        }
+        try {
+            postRepository.addViews(ids, deltas);
+        } catch (RuntimeException e) {
+            // Put the counts back; they go out with the next flush
+            batch.forEach((postId, delta) -> {
+                Stripe stripe = stripeOf(postId);
+                synchronized (stripe) {
+                    stripe.pending.merge(postId, delta, Integer::sum);
+                }
+            });
+            log.warn("Post view flush failed for {} posts, will retry: {}", ids.length, e.getMessage());
+            return;
+        }
+        trendingIndex.onViewsFlushed(batch);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private Stripe stripeOf(Long postId) {
+        long h = postId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    // Drops expired entries from the head; past the size cap, also the oldest live ones
+    private void evictExpired(Stripe stripe, long now) {
+        Iterator<Map.Entry<String, Long>> it = stripe.seen.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> oldest = it.next();
+            if (oldest.getValue() > now && stripe.seen.size() <= maxSeenPerStripe) break;
+            it.remove();
+        }
+    }
+}
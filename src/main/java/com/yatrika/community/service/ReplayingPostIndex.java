@@ -0,0 +1,69 @@
+package com.yatrika.community.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loading and rebuild skeleton shared by the in-memory post indexes. The index monitor
+ * ({@code this}) guards the subclass structures; committed changes go through {@link #apply}
+ * and queries call {@link #ensureLoaded()} first. A rebuild reads outside the monitor, so
+ * changes keep flowing meanwhile and are replayed on top of what it read when it swaps in.
+ * Subclasses only read their rows ({@link #read()}) and turn them into entries ({@link #swapIn}).
+ *
+ * @param <R> what one rebuild read
+ */
+abstract class ReplayingPostIndex<R> {
+
+    private volatile boolean loaded;
+    // Changes committed while a rebuild is reading, replayed after its swap; guarded by this
+    private List<Runnable> replay;
+    private final Object rebuildLock = new Object();
+
+    // Reads the current state from the database; runs outside the index monitor
+    abstract R read();
+
+    // Replaces every entry with what read() returned; runs holding the index monitor
+    abstract void swapIn(R read);
+
+    // Applies a committed change now and, while a rebuild is reading, once more on top of what it
+    // read, so the swap cannot lose it. Before the first load there is nothing to change and the
+    // load reads the committed state anyway. Saves and deletes replay exactly; an increment that
+    // committed just before the read's snapshot is counted twice until the next rebuild.
+    final synchronized void apply(Runnable change) {
+        if (loaded) change.run();
+        if (replay != null) replay.add(change);
+    }
+
+    final void reload() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            R read = null;
+            try {
+                read = read();
+            } finally {
+                synchronized (this) {
+                    if (read != null) {
+                        swapIn(read);
+                        replay.forEach(Runnable::run);
+                        loaded = true;
+                    }
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    final boolean isLoaded() {
+        return loaded;
+    }
+
+    final void ensureLoaded() {
+        if (!loaded) {
+            synchronized (rebuildLock) {
+                if (!loaded) reload();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.yatrika.destination.dto.request.NearbySearchRequest;
 import com.yatrika.destination.dto.response.BulkDestinationResult;
 import com.yatrika.destination.dto.response.DestinationResponse;
 import com.yatrika.destination.service.DestinationService;
+import com.yatrika.shared.dto.UniqueViewersResponse;
 import com.yatrika.user.service.CurrentUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,11 +17,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -40,6 +43,15 @@ public class DestinationController {
         return ResponseEntity.ok(destinationService.getDestinationById(id));
     }
 
+    @GetMapping("/{id}/unique-viewers")
+    @Operation(summary = "Estimated distinct viewers of a destination between two dates (Public, defaults to the last 30 days)")
+    public ResponseEntity<UniqueViewersResponse> getUniqueViewers(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(destinationService.getUniqueViewers(id, from, to));
+    }
+
     @GetMapping
     @Operation(summary = "Get all destinations with pagination (Public)")
     public ResponseEntity<Page<DestinationResponse>> getAllDestinations(
@@ -1,6 +1,7 @@
 package com.yatrika.destination.domain;
 
 import com.yatrika.shared.domain.BaseEntity;
+import com.yatrika.shared.domain.RatingHistogram;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -91,14 +92,25 @@ public class Destination extends BaseEntity {
     @Builder.Default
     private BigDecimal entranceFeeForeign = BigDecimal.ZERO;
 
-    @Column(name = "average_rating", precision = 3, scale = 2)
+    // Review aggregates below are written on insert and then only by the atomic
+    // applyRatingChange update; a whole-entity save must not write back stale values
+    @Column(name = "average_rating", precision = 3, scale = 2, updatable = false)
     @Builder.Default
     private BigDecimal averageRating = BigDecimal.ZERO;
 
-    @Column(name = "total_reviews")
+    @Column(name = "total_reviews", updatable = false)
     @Builder.Default
     private Integer totalReviews = 0;
 
+    // Running aggregates behind averageRating, adjusted by ReviewService deltas
+    @Column(name = "rating_sum", updatable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Embedded
+    @Builder.Default
+    private RatingHistogram ratingHistogram = new RatingHistogram();
+
     @Column(name = "total_visits")
     @Builder.Default
     private Integer totalVisits = 0;
@@ -8,6 +8,7 @@ import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class DestinationResponse {
@@ -29,6 +30,7 @@ public class DestinationResponse {
     private boolean freeEntry;
     private BigDecimal averageRating;
     private Integer totalReviews;
+    private Map<Integer, Integer> ratingHistogram;
     private Integer popularityScore;
     private String[] tags;
     private Integer safetyLevel;
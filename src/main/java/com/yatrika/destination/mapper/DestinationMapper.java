@@ -5,12 +5,14 @@ import com.yatrika.destination.domain.DestinationImage;
 import com.yatrika.destination.dto.request.DestinationRequest;
 import com.yatrika.destination.dto.response.DestinationResponse;
 import com.yatrika.destination.dto.response.DestinationSummaryDTO;
+import com.yatrika.shared.domain.RatingHistogram;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 @Mapper(componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -38,6 +40,8 @@ public interface DestinationMapper {
     @Mapping(target = "totalReviews", ignore = true)
     @Mapping(target = "totalVisits", ignore = true)
     @Mapping(target = "popularityScore", ignore = true)
+    @Mapping(target = "ratingSum", ignore = true)
+    @Mapping(target = "ratingHistogram", ignore = true)
 
     Destination toEntity(DestinationRequest request);
 
@@ -62,6 +66,8 @@ public interface DestinationMapper {
     @Mapping(target = "totalReviews", ignore = true)
     @Mapping(target = "totalVisits", ignore = true)
     @Mapping(target = "popularityScore", ignore = true)
+    @Mapping(target = "ratingSum", ignore = true)
+    @Mapping(target = "ratingHistogram", ignore = true)
 
     // Also ignore location/metadata fields if they are not meant to be updated via request
     @Mapping(target = "fullAddress", ignore = true)
@@ -80,5 +86,9 @@ public interface DestinationMapper {
         return value != null ? value.doubleValue() : null;
     }
 
+    default Map<Integer, Integer> mapRatingHistogram(RatingHistogram histogram) {
+        return histogram != null ? histogram.toMap() : null;
+    }
+
     DestinationSummaryDTO toSummaryDto(Destination destination);
 }
\ No newline at end of file
@@ -5,8 +5,10 @@ import com.yatrika.destination.domain.DestinationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -80,6 +82,63 @@ public interface DestinationRepository extends JpaRepository<Destination, Long>
     // Check if destination exists by name in district
     boolean existsByNameAndDistrict(String name, String district);
 
+    // --- Rating aggregates ---
+    // One UPDATE per review write: 'added' / 'removed' are star values (1-5), 0 meaning none.
+    @Modifying
+    @Query("UPDATE Destination d SET " +
+            "d.ratingSum = d.ratingSum + :added - :removed, " +
+            "d.totalReviews = d.totalReviews + SIGN(:added) - SIGN(:removed), " +
+            "d.ratingHistogram.oneStar = d.ratingHistogram.oneStar + (CASE WHEN :added = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 1 THEN 1 ELSE 0 END), " +
+            "d.ratingHistogram.twoStar = d.ratingHistogram.twoStar + (CASE WHEN :added = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 2 THEN 1 ELSE 0 END), " +
+            "d.ratingHistogram.threeStar = d.ratingHistogram.threeStar + (CASE WHEN :added = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 3 THEN 1 ELSE 0 END), " +
+            "d.ratingHistogram.fourStar = d.ratingHistogram.fourStar + (CASE WHEN :added = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 4 THEN 1 ELSE 0 END), " +
+            "d.ratingHistogram.fiveStar = d.ratingHistogram.fiveStar + (CASE WHEN :added = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 5 THEN 1 ELSE 0 END), " +
+            "d.averageRating = CASE WHEN d.totalReviews + SIGN(:added) - SIGN(:removed) > 0 " +
+            "THEN (d.ratingSum + :added - :removed) * 1.0 / (d.totalReviews + SIGN(:added) - SIGN(:removed)) ELSE 0 END " +
+            "WHERE d.id = :id")
+    int applyRatingChange(@Param("id") Long id, @Param("added") int added, @Param("removed") int removed);
+
+    default void addRating(Long id, int rating) {
+        applyRatingChange(id, rating, 0);
+    }
+
+    default void removeRating(Long id, int rating) {
+        applyRatingChange(id, 0, rating);
+    }
+
+    default void changeRating(Long id, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            applyRatingChange(id, newRating, oldRating);
+        }
+    }
+
+    // Seeds the aggregate columns from the reviews table for rows created before they existed
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE destinations d SET
+            rating_sum = COALESCE(s.total, 0),
+            total_reviews = COALESCE(s.cnt, 0),
+            rating_1_count = COALESCE(s.r1, 0),
+            rating_2_count = COALESCE(s.r2, 0),
+            rating_3_count = COALESCE(s.r3, 0),
+            rating_4_count = COALESCE(s.r4, 0),
+            rating_5_count = COALESCE(s.r5, 0),
+            average_rating = COALESCE(ROUND(s.total::numeric / NULLIF(s.cnt, 0), 2), 0)
+        FROM destinations d2
+        LEFT JOIN (
+            SELECT destination_id, SUM(rating) AS total, COUNT(*) AS cnt,
+                   COUNT(*) FILTER (WHERE rating = 1) AS r1,
+                   COUNT(*) FILTER (WHERE rating = 2) AS r2,
+                   COUNT(*) FILTER (WHERE rating = 3) AS r3,
+                   COUNT(*) FILTER (WHERE rating = 4) AS r4,
+                   COUNT(*) FILTER (WHERE rating = 5) AS r5
+            FROM reviews GROUP BY destination_id
+        ) s ON s.destination_id = d2.id
+        WHERE d.id = d2.id AND (d.rating_sum IS NULL OR d.rating_5_count IS NULL)
+        """, nativeQuery = true)
+    int backfillRatingAggregates();
+
     // Admin methods
     @Query("SELECT d, COUNT(r) as reviewCount FROM Destination d " +
             "LEFT JOIN Review r ON r.destination.id = d.id " +
@@ -110,4 +169,13 @@ public interface DestinationRepository extends JpaRepository<Destination, Long>
             @Param("limit") int limit,
             Pageable pageable
     );
+
+    // --- In-memory attribute index (DestinationAttributeIndex) ---
+    @Query("SELECT d.id, d.name, d.latitude, d.longitude, d.averageDurationHours, d.averageRating, " +
+            "d.tags, d.category, d.subCategory, d.type, d.entranceFeeLocal, d.entranceFeeForeign " +
+            "FROM Destination d")
+    List<Object[]> findAttributeRows();
+
+    @Query("SELECT h.destination.id, h.dayOfWeek, h.opensAt, h.closesAt, h.isClosed FROM OperatingHour h")
+    List<Object[]> findOperatingHourRows();
 }
@@ -0,0 +1,241 @@
+package com.yatrika.destination.service;
+
+import com.yatrika.destination.repository.DestinationRepository;
+import com.yatrika.shared.service.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Column-wise, read-only copy of the destination attributes that planning features score on
+ * (position, stay length, rating, tags, fees, weekly opening hours) plus a coarse lat/lon grid
+ * for radius queries. Lookups are array reads;
+ * the whole thing is rebuilt from two projection queries after destination writes or once it
+ * is older than the configured max age (ratings move without going through DestinationService).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationAttributeIndex {
+
+    public static final int UNKNOWN = -1;
+    public static final int CLOSED = -2;
+    private static final double GRID_DEGREES = 0.1; // ~11 km cells
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final DestinationRepository destinationRepository;
+
+    @Value("${app.destination-index.max-age:PT15M}")
+    private Duration maxAge;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.builtAt.plus(maxAge).isAfter(Instant.now())) return current;
+        return rebuild();
+    }
+
+    // Called from destination writes; takes effect once the write is committed
+    public void invalidateAfterCommit() {
+        AfterCommit.run(this::invalidate);
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot current = snapshot;
+        if (current != null && current.builtAt.plus(maxAge).isAfter(Instant.now())) return current;
+
+        long startedAt = generation.get();
+        Snapshot built = new Snapshot(destinationRepository.findAttributeRows(), destinationRepository.findOperatingHourRows());
+        if (generation.get() == startedAt) {
+            snapshot = built;
+        }
+        log.debug("Destination attribute index rebuilt with {} destinations", built.size());
+        return built;
+    }
+
+    /** Immutable arrays indexed by position; {@link #positionOf(Long)} maps a destination id to its slot. */
+    public static final class Snapshot {
+
+        private final Instant builtAt = Instant.now();
+        private final long[] ids;
+        private final String[] names;
+        private final double[] latitudes;       // NaN when unknown
+        private final double[] longitudes;
+        private final int[] stayMinutes;        // UNKNOWN when averageDurationHours is not set
+        private final double[] ratings;
+        private final double[] feesLocal;
+        private final double[] feesForeign;
+        private final int[][] tagIds;           // sorted, from tags + category + subCategory + type
+        private final int[] opensAt;            // [position * 7 + weekday], minutes of day, UNKNOWN or CLOSED
+        private final int[] closesAt;
+        private final Map<Long, Integer> positions;
+        private final Map<String, Integer> tagDictionary = new HashMap<>();
+        private final Map<Long, int[]> grid;    // GRID_DEGREES cells -> positions, for radius lookups
+
+        private Snapshot(List<Object[]> rows, List<Object[]> hourRows) {
+            int n = rows.size();
+            ids = new long[n];
+            names = new String[n];
+            latitudes = new double[n];
+            longitudes = new double[n];
+            stayMinutes = new int[n];
+            ratings = new double[n];
+            feesLocal = new double[n];
+            feesForeign = new double[n];
+            tagIds = new int[n][];
+            opensAt = new int[n * 7];
+            closesAt = new int[n * 7];
+            positions = new HashMap<>(n * 2);
+            Arrays.fill(opensAt, UNKNOWN);
+            Arrays.fill(closesAt, UNKNOWN);
+
+            for (int i = 0; i < n; i++) {
+                Object[] row = rows.get(i);
+                ids[i] = (Long) row[0];
+                names[i] = (String) row[1];
+                latitudes[i] = row[2] != null ? ((BigDecimal) row[2]).doubleValue() : Double.NaN;
+                longitudes[i] = row[3] != null ? ((BigDecimal) row[3]).doubleValue() : Double.NaN;
+                stayMinutes[i] = row[4] != null ? (Integer) row[4] * 60 : UNKNOWN;
+                ratings[i] = row[5] != null ? ((BigDecimal) row[5]).doubleValue() : 0;
+                feesLocal[i] = row[10] != null ? ((BigDecimal) row[10]).doubleValue() : 0;
+                feesForeign[i] = row[11] != null ? ((BigDecimal) row[11]).doubleValue() : 0;
+
+                Set<String> terms = new LinkedHashSet<>();
+                if (row[6] != null) terms.addAll(Arrays.asList((String[]) row[6]));
+                if (row[7] != null) terms.add((String) row[7]);
+                if (row[8] != null) terms.add((String) row[8]);
+                if (row[9] != null) terms.add(row[9].toString());
+                tagIds[i] = terms.stream()
+                        .filter(t -> t != null && !t.isBlank())
+                        .mapToInt(t -> tagDictionary.computeIfAbsent(normalize(t), k -> tagDictionary.size()))
+                        .distinct().sorted().toArray();
+
+                positions.put(ids[i], i);
+            }
+
+            Map<Long, List<Integer>> cells = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (Double.isNaN(latitudes[i]) || Double.isNaN(longitudes[i])) continue;
+                cells.computeIfAbsent(cellKey(cellOf(latitudes[i]), cellOf(longitudes[i])), k -> new ArrayList<>()).add(i);
+            }
+            grid = new HashMap<>(cells.size() * 2);
+            cells.forEach((key, members) -> grid.put(key, members.stream().mapToInt(Integer::intValue).toArray()));
+
+            for (Object[] row : hourRows) {
+                Integer position = positions.get((Long) row[0]);
+                Integer weekday = (Integer) row[1];
+                if (position == null || weekday == null || weekday < 0 || weekday > 6) continue;
+                int slot = position * 7 + weekday;
+                if (Boolean.TRUE.equals(row[4])) {
+                    opensAt[slot] = CLOSED;
+                    closesAt[slot] = CLOSED;
+                } else if (row[2] != null && row[3] != null) {
+                    opensAt[slot] = minutes((LocalTime) row[2]);
+                    closesAt[slot] = minutes((LocalTime) row[3]);
+                }
+            }
+        }
+
+        public int size() { return ids.length; }
+        public Integer positionOf(Long destinationId) { return positions.get(destinationId); }
+        public long id(int i) { return ids[i]; }
+        public String name(int i) { return names[i]; }
+        public double latitude(int i) { return latitudes[i]; }
+        public double longitude(int i) { return longitudes[i]; }
+        public int stayMinutes(int i) { return stayMinutes[i]; }
+        public double rating(int i) { return ratings[i]; }
+        public double feeLocal(int i) { return feesLocal[i]; }
+        public double feeForeign(int i) { return feesForeign[i]; }
+        public int[] tagIds(int i) { return tagIds[i]; }
+
+        // weekday: 0 = Sunday .. 6 = Saturday, same as OperatingHour
+        public int opensAt(int i, int weekday) { return opensAt[i * 7 + weekday]; }
+        public int closesAt(int i, int weekday) { return closesAt[i * 7 + weekday]; }
+
+        // Positions of destinations within radiusKm of the point (great-circle), via the grid cells it overlaps
+        public int[] within(double lat, double lon, double radiusKm) {
+            double latSpan = radiusKm / KM_PER_DEGREE;
+            double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+            int minLatCell = cellOf(lat - latSpan), maxLatCell = cellOf(lat + latSpan);
+            int minLonCell = cellOf(lon - lonSpan), maxLonCell = cellOf(lon + lonSpan);
+
+            List<Integer> hits = new ArrayList<>();
+            for (int a = minLatCell; a <= maxLatCell; a++) {
+                for (int b = minLonCell; b <= maxLonCell; b++) {
+                    int[] members = grid.get(cellKey(a, b));
+                    if (members == null) continue;
+                    for (int i : members) {
+                        if (distanceKm(lat, lon, latitudes[i], longitudes[i]) <= radiusKm) hits.add(i);
+                    }
+                }
+            }
+            return hits.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+            double dLat = Math.toRadians(lat2 - lat1);
+            double dLon = Math.toRadians(lon2 - lon1);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            return 2 * 6371.0 * Math.asin(Math.sqrt(a));
+        }
+
+        private static int cellOf(double degrees) {
+            return (int) Math.floor(degrees / GRID_DEGREES);
+        }
+
+        private static long cellKey(int latCell, int lonCell) {
+            return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+        }
+
+        // Terms unknown to the index are dropped; the result is sorted for overlapCount
+        public int[] tagIdsOf(Collection<String> terms) {
+            return terms.stream()
+                    .map(t -> tagDictionary.get(normalize(t)))
+                    .filter(id -> id != null)
+                    .mapToInt(Integer::intValue)
+                    .distinct().sorted().toArray();
+        }
+
+        public static int overlapCount(int[] a, int[] b) {
+            int i = 0, j = 0, count = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) { count++; i++; j++; }
+                else if (a[i] < b[j]) i++;
+                else j++;
+            }
+            return count;
+        }
+
+        private static String normalize(String term) {
+            return term.trim().toLowerCase(Locale.ROOT);
+        }
+
+        private static int minutes(LocalTime time) {
+            return time.getHour() * 60 + time.getMinute();
+        }
+    }
+}
@@ -9,9 +9,15 @@ import com.yatrika.destination.dto.response.BulkDestinationResult;
 import com.yatrika.destination.dto.response.DestinationResponse;
 import com.yatrika.destination.mapper.DestinationMapper;
 import com.yatrika.destination.repository.DestinationRepository;
+import com.yatrika.itinerary.service.ItineraryBudgetService;
+import com.yatrika.itinerary.service.ItineraryService;
+import com.yatrika.shared.domain.ViewedEntityType;
+import com.yatrika.shared.dto.UniqueViewersResponse;
 import com.yatrika.shared.exception.AppException;
 import com.yatrika.shared.exception.ResourceNotFoundException;
 import com.yatrika.shared.service.FileStorageService;
+import com.yatrika.shared.service.TrendingTagTracker;
+import com.yatrika.shared.service.UniqueViewerService;
 import com.yatrika.user.domain.User;
 import com.yatrika.user.repository.UserRepository;
 import jakarta.transaction.Transactional;
@@ -26,6 +32,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
@@ -37,6 +44,11 @@ public class DestinationService {
     private final DestinationMapper destinationMapper;
     private final FileStorageService fileStorageService;
     private final UserRepository userRepository;
+    private final DestinationAttributeIndex attributeIndex;
+    private final UniqueViewerService uniqueViewerService;
+    private final TrendingTagTracker trendingTags;
+    private final ItineraryBudgetService budgetService;
+    private final ItineraryService itineraryService;
 
     /**
      * Create a new destination using URLs provided in the request.
@@ -72,6 +84,7 @@ public class DestinationService {
         }
 
         Destination savedDestination = destinationRepository.save(destination);
+        attributeIndex.invalidateAfterCommit();
         return destinationMapper.toResponse(savedDestination);
     }
 
@@ -112,15 +125,27 @@ public class DestinationService {
             throw new AppException("Another destination with this name already exists in " + request.getDistrict());
         }
 
+        BigDecimal feeLocal = destination.getEntranceFeeLocal();
+        BigDecimal feeForeign = destination.getEntranceFeeForeign();
         destinationMapper.updateEntity(destination, request);
+        if (!sameAmount(feeLocal, destination.getEntranceFeeLocal())
+                || !sameAmount(feeForeign, destination.getEntranceFeeForeign())) {
+            budgetService.onEntranceFeeChanged(id); // trip budgets priced with the old fee
+        }
 
         if (request.getImages() != null) {
             updateDestinationImages(destination, request.getImages());
         }
 
+        attributeIndex.invalidateAfterCommit();
+        itineraryService.onDestinationChanged(); // templates embed destination summaries
         return destinationMapper.toResponse(destinationRepository.save(destination));
     }
 
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
     private void updateDestinationImages(Destination destination, List<DestinationRequest.ImageRequest> newImages) {
         List<String> incomingUrls = newImages.stream()
                 .map(DestinationRequest.ImageRequest::getImageUrl).toList();
@@ -170,6 +195,8 @@ public class DestinationService {
                 .map(DestinationImage::getImageUrl).toList();
 
         destinationRepository.delete(destination);
+        attributeIndex.invalidateAfterCommit();
+        itineraryService.onDestinationChanged();
 
         // Safe physical deletion
         urlsToDelete.forEach(fileStorageService::deleteFile);
@@ -180,9 +207,18 @@ public class DestinationService {
 
     @Cacheable(value = "destinations", key = "#id")
     public DestinationResponse getDestinationById(Long id) {
-        return destinationRepository.findById(id)
+        DestinationResponse response = destinationRepository.findById(id)
                 .map(destinationMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Destination", "id", id));
+        uniqueViewerService.recordCurrentViewer(ViewedEntityType.DESTINATION, id);
+        return response;
+    }
+
+    public UniqueViewersResponse getUniqueViewers(Long id, LocalDate from, LocalDate to) {
+        if (!destinationRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Destination", "id", id);
+        }
+        return uniqueViewerService.uniqueViewers(ViewedEntityType.DESTINATION, id, from, to);
     }
 
     public Page<DestinationResponse> getAllDestinations(Pageable pageable) {
@@ -200,9 +236,14 @@ public class DestinationService {
 
         Page<Destination> destinations;
 
-        // 1. Logic: If user has no interests, show them popular destinations instead
+        // 1. Logic: If user has no interests, seed them with what is trending right now
         if (interests == null || interests.isEmpty()) {
-            log.debug("User has no explicit interests, falling back to popular destinations.");
+            interests = trendingTags.topTags(10);
+        }
+
+        // ... and with nothing trending either, show them popular destinations instead
+        if (interests.isEmpty()) {
+            log.debug("User has no explicit interests and no tags are trending, falling back to popular destinations.");
             return getPopularDestinations(pageable);
         } else {
             // 2. Query: Find destinations where tags overlap with user interests
@@ -224,6 +265,9 @@ public class DestinationService {
     @Cacheable(value = "destinationSearch", key = "#request.hashCode()")
     public Page<DestinationResponse> searchDestinations(DestinationSearchRequest request) {
         log.debug("Searching destinations with criteria: {}", request);
+        if (request.getPage() == 0 && request.getTags() != null) {
+            trendingTags.onTagsSearched(request.getTags()); // once per search, not per page
+        }
 
         Pageable pageable = request.toPageable();
 
@@ -3,20 +3,36 @@ package com.yatrika.itinerary.controller;
 import com.yatrika.itinerary.dto.request.ItineraryFilterRequest;
 import com.yatrika.itinerary.dto.request.ItineraryItemRequest;
 import com.yatrika.itinerary.dto.request.ItineraryRequest;
+import com.yatrika.itinerary.dto.response.AdminTemplateSnapshot;
+import com.yatrika.itinerary.dto.response.BudgetOptimizationResponse;
+import com.yatrika.itinerary.dto.response.FeasibilityReportResponse;
+import com.yatrika.itinerary.dto.response.NearbyItineraryResponse;
+import com.yatrika.itinerary.dto.response.NextStopSuggestionResponse;
+import com.yatrika.itinerary.dto.response.SimilarItineraryResponse;
 import com.yatrika.itinerary.dto.response.ItineraryResponse;
+import com.yatrika.itinerary.service.BudgetOptimizerService;
+import com.yatrika.itinerary.service.ItineraryExportService;
 import com.yatrika.itinerary.service.ItineraryService;
+import com.yatrika.itinerary.service.NextStopSuggestionService;
+import com.yatrika.itinerary.service.ScheduleFeasibilityService;
+import com.yatrika.shared.exception.AppException;
 import com.yatrika.shared.security.UserPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -26,6 +42,13 @@ import java.util.List;
 public class ItineraryController {
 
     private final ItineraryService itineraryService;
+    private final ItineraryExportService exportService;
+    private final ScheduleFeasibilityService feasibilityService;
+    private final NextStopSuggestionService suggestionService;
+    private final BudgetOptimizerService budgetOptimizerService;
+
+    @Value("${app.auto-split.max-days:60}")
+    private int maxAutoSplitDays;
 
     // Helper to get the ID from the JWT token
     private Long getCurrentUserId() {
@@ -34,13 +57,33 @@ public class ItineraryController {
         return principal.getId();
     }
 
+    // If-None-Match may carry several tags or weak ones (W/"..."); GET revalidation compares weakly
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
     // ================= STEP 1: DISCOVERY & EXPLORATION =================
     // (Open to everyone or users exploring templates)
 
     @GetMapping("/admin-templates")
     @Operation(summary = "Get expert-curated admin itineraries (Tab 2)")
-    public ResponseEntity<List<ItineraryResponse>> getAdminTemplates() {
-        return ResponseEntity.ok(itineraryService.getAdminTemplates());
+    public ResponseEntity<byte[]> getAdminTemplates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Served from a pre-encoded snapshot; clients revalidating with the ETag get an empty 304
+        AdminTemplateSnapshot snapshot = itineraryService.getAdminTemplatesSnapshot();
+        if (matchesEtag(ifNoneMatch, snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
 
     @GetMapping("/community")
@@ -57,12 +100,32 @@ public class ItineraryController {
         return ResponseEntity.ok(itineraryService.searchPublicItineraries(filter, pageable));
     }
 
+    @GetMapping("/near")
+    @Operation(summary = "Public trips and templates that include a destination or pass within radiusKm of it / a point")
+    public ResponseEntity<Page<NearbyItineraryResponse>> getTripsNear(
+            @RequestParam(required = false) Long destinationId,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(defaultValue = "0") double radiusKm,
+            Pageable pageable) {
+        return ResponseEntity.ok(itineraryService.getItinerariesNear(
+                destinationId, latitude, longitude, Math.min(radiusKm, 200), pageable));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get full details of any itinerary by ID")
     public ResponseEntity<ItineraryResponse> getById(@PathVariable Long id) {
         return ResponseEntity.ok(itineraryService.getItineraryById(id));
     }
 
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Find public trips and templates that visit similar places")
+    public ResponseEntity<List<SimilarItineraryResponse>> getSimilar(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(itineraryService.getSimilarItineraries(id, Math.max(1, Math.min(limit, 50))));
+    }
+
     // ================= STEP 2: LIFECYCLE (CREATE & COPY) =================
     // (Moving from discovery to ownership)
 
@@ -104,6 +167,37 @@ public class ItineraryController {
     // ================= STEP 4: ITEM & PROGRESS MANAGEMENT =================
     // (Day-by-day actions)
 
+    @GetMapping("/{id}/feasibility")
+    @Operation(summary = "Check every day for overlaps, opening hours, visit durations and travel time")
+    public ResponseEntity<FeasibilityReportResponse> checkFeasibility(@PathVariable Long id) {
+        return ResponseEntity.ok(feasibilityService.checkTrip(id, getCurrentUserId()));
+    }
+
+    @GetMapping("/{id}/days/{dayNumber}/suggestions")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Suggest what to do next at a position in a day (detour, time left, opening hours, interests, rating)")
+    public ResponseEntity<List<NextStopSuggestionResponse>> suggestNextStops(
+            @PathVariable Long id,
+            @PathVariable Integer dayNumber,
+            @RequestParam(required = false) Integer position, // omitted = append to the day
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(
+                id, dayNumber, position, Math.max(1, Math.min(limit, 50)), getCurrentUserId()));
+    }
+
+    @GetMapping("/{id}/budget-swaps")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Suggest ranked plans of cheaper, similar nearby stops that bring the trip under a target budget")
+    public ResponseEntity<BudgetOptimizationResponse> suggestBudgetSwaps(
+            @PathVariable Long id,
+            @RequestParam BigDecimal targetBudget,
+            @RequestParam(defaultValue = "15") double radiusKm,
+            @RequestParam(defaultValue = "5") int plans) {
+        return ResponseEntity.ok(budgetOptimizerService.suggestSwaps(
+                id, targetBudget, Math.max(0.1, Math.min(radiusKm, 100)), Math.max(1, Math.min(plans, 20)),
+                getCurrentUserId()));
+    }
+
     @PostMapping("/{itineraryId}/items")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Add a new destination/activity to your plan")
@@ -144,6 +238,19 @@ public class ItineraryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{id}/auto-split")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Group a draft's destinations into N days by location and visit length")
+    public ResponseEntity<ItineraryResponse> autoSplit(
+            @PathVariable Long id,
+            @RequestParam int days) {
+        // Bounded up front: the split allocates a list per day and stores days as totalDays
+        if (days < 1 || days > maxAutoSplitDays) {
+            throw new AppException("Number of days must be between 1 and " + maxAutoSplitDays);
+        }
+        return ResponseEntity.ok(itineraryService.autoSplitIntoDays(id, days, getCurrentUserId()));
+    }
+
     @DeleteMapping("/{itineraryId}/items/{itemId}")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Remove an activity from your plan")
@@ -170,4 +277,36 @@ public class ItineraryController {
     public ResponseEntity<ItineraryResponse> share(@PathVariable Long id) {
         return ResponseEntity.ok(itineraryService.shareTrip(id, getCurrentUserId()));
     }
+
+    // ================= STEP 6: EXPORT =================
+    // (Calendar and GPS apps; written straight to the response)
+
+    @GetMapping("/{id}/export.ics")
+    @Operation(summary = "Export an itinerary as an iCalendar file")
+    public ResponseEntity<StreamingResponseBody> exportIcs(@PathVariable Long id) {
+        return attachment(exportService.exportIcs(id, getCurrentUserId()),
+                "itinerary-" + id + ".ics", "text/calendar;charset=UTF-8");
+    }
+
+    @GetMapping("/{id}/export.gpx")
+    @Operation(summary = "Export an itinerary's stops as a GPX route")
+    public ResponseEntity<StreamingResponseBody> exportGpx(@PathVariable Long id) {
+        return attachment(exportService.exportGpx(id, getCurrentUserId()),
+                "itinerary-" + id + ".gpx", "application/gpx+xml");
+    }
+
+    @GetMapping("/my-plans/export.zip")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Export all of your trips (ICS + GPX) as one ZIP")
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return attachment(exportService.exportAllAsZip(getCurrentUserId()),
+                "yatrika-trips.zip", "application/zip");
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(StreamingResponseBody body, String fileName, String contentType) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(contentType))
+                .body(body);
+    }
 }
\ No newline at end of file
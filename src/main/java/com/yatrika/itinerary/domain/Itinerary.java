@@ -1,6 +1,7 @@
 package com.yatrika.itinerary.domain;
 
 import com.yatrika.shared.domain.BaseEntity;
+import com.yatrika.shared.domain.RatingHistogram;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -51,9 +52,34 @@ public class Itinerary extends BaseEntity {
     private String theme;
     private BigDecimal estimatedBudget;
 
-    @Column(name = "average_rating")
+    // Decides which destination entrance fee the budget engine applies
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private TravellerNationality travellerNationality = TravellerNationality.LOCAL;
+
+    // Sum of items' resolvedCost, kept up to date by ItineraryBudgetService on every item change
+    @Column(name = "calculated_budget", precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal calculatedBudget = BigDecimal.ZERO;
+
+    // Review aggregates: written on insert, then only by the atomic applyRatingChange update,
+    // so saving the itinerary never writes back values loaded before a review committed
+    @Column(name = "average_rating", updatable = false)
+    @Builder.Default
     private Double averageRating = 0.0;
 
+    @Column(name = "rating_sum", updatable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", updatable = false)
+    @Builder.Default
+    private Integer ratingCount = 0;
+
+    @Embedded
+    @Builder.Default
+    private RatingHistogram ratingHistogram = new RatingHistogram();
+
     // Social Stats
     @Builder.Default
     private Integer copyCount = 0;
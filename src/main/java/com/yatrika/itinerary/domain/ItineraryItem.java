@@ -34,8 +34,17 @@ public class ItineraryItem extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
     private BigDecimal estimatedCost;
+    // What the budget engine charged for this item (explicit cost, or entrance fee + activity default)
+    @Column(name = "resolved_cost", precision = 10, scale = 2)
+    private BigDecimal resolvedCost;
     private LocalTime startTime;
     private LocalTime endTime;
     private String activityType; // VISIT, MEAL, TRANSPORT
+
+    // Last feasibility check of this item's day (ScheduleFeasibilityService), refreshed on every edit of that day
+    @Column(name = "slack_minutes")
+    private Integer slackMinutes;
+    @Column(name = "schedule_issues")
+    private String scheduleIssues; // comma-separated ScheduleConflictType names, null when the slot fits
     private Boolean isVisited = false;
 }
\ No newline at end of file
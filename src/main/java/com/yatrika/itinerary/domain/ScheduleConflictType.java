@@ -0,0 +1,10 @@
+package com.yatrika.itinerary.domain;
+
+public enum ScheduleConflictType {
+    INVALID_TIME,   // endTime before startTime
+    OVERLAP,        // time range intersects another item of the same day
+    TRAVEL_TIME,    // not enough time to get here from the previous stop
+    TOO_SHORT,      // planned stay shorter than the destination's averageDurationHours
+    OUTSIDE_HOURS,  // starts before opening or ends after closing
+    CLOSED          // destination is closed on that weekday
+}
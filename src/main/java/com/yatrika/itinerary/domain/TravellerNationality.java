@@ -0,0 +1,6 @@
+package com.yatrika.itinerary.domain;
+
+public enum TravellerNationality {
+    LOCAL,      // Nepali citizens, charged Destination.entranceFeeLocal
+    FOREIGN     // Everyone else, charged Destination.entranceFeeForeign
+}
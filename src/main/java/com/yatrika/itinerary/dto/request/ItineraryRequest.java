@@ -1,5 +1,6 @@
 package com.yatrika.itinerary.dto.request;
 
+import com.yatrika.itinerary.domain.TravellerNationality;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import java.math.BigDecimal;
@@ -16,4 +17,5 @@ public class ItineraryRequest {
     private LocalDate startDate;
     private LocalDate endDate;
     private BigDecimal estimatedBudget;
+    private TravellerNationality travellerNationality; // LOCAL, FOREIGN (entrance fee tier)
 }
@@ -0,0 +1,8 @@
+package com.yatrika.itinerary.dto.response;
+
+/**
+ * The admin templates list as it goes over the wire: JSON already encoded once,
+ * plus a strong ETag over those bytes. Never mutated after it is built.
+ */
+public record AdminTemplateSnapshot(byte[] json, String etag) {
+}
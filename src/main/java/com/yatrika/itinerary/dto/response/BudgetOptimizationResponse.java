@@ -0,0 +1,16 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BudgetOptimizationResponse {
+    private Long itineraryId;
+    private BigDecimal currentCost;
+    private BigDecimal targetBudget;
+    private boolean alreadyWithinBudget;
+    private List<BudgetSwapPlanResponse> plans = new ArrayList<>();
+}
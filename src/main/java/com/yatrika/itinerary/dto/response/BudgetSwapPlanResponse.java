@@ -0,0 +1,17 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BudgetSwapPlanResponse {
+    private int rank;
+    private boolean withinBudget;
+    private BigDecimal totalCost;
+    private BigDecimal savings;
+    private Double score; // total rating minus detour penalty; higher is better
+    private List<BudgetSwapResponse> swaps = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSwapResponse {
+    private Long itemId;
+    private Integer dayNumber;
+    private Long fromDestinationId;
+    private String fromName;
+    private Long toDestinationId;
+    private String toName;
+    private BigDecimal costDelta;   // negative = saving
+    private Double ratingDelta;
+    private Double distanceKm;      // how far the substitute is from the original stop
+}
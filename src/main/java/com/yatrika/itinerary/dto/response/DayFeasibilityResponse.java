@@ -0,0 +1,16 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DayFeasibilityResponse {
+    private Integer dayNumber;
+    private LocalDate date;              // null when the trip has no start date (opening hours are then not checked)
+    private boolean feasible;
+    private List<ItemFeasibilityResponse> items = new ArrayList<>();
+    private List<Long> unscheduledItemIds = new ArrayList<>(); // items without a startTime
+}
@@ -0,0 +1,14 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FeasibilityReportResponse {
+    private Long itineraryId;
+    private boolean feasible;
+    private int conflictCount;
+    private List<DayFeasibilityResponse> days = new ArrayList<>();
+}
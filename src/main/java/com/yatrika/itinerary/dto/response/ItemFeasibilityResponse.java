@@ -0,0 +1,14 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemFeasibilityResponse {
+    private Long itemId;
+    private Integer travelMinutesFromPrevious;
+    private Integer slackMinutes; // spare time before the next stop (incl. travel) or closing; negative = over-booked
+    private List<ScheduleConflictResponse> conflicts = new ArrayList<>();
+}
@@ -2,6 +2,8 @@ package com.yatrika.itinerary.dto.response;
 
 import com.yatrika.destination.dto.response.DestinationSummaryDTO;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.time.LocalTime;
 
 @Data
@@ -14,5 +16,9 @@ public class ItineraryItemResponse {
     private String activityType;
     private LocalTime startTime;
     private LocalTime endTime;
+    private BigDecimal estimatedCost;
+    private BigDecimal resolvedCost;
+    private Integer slackMinutes;
+    private String scheduleIssues;
     private DestinationSummaryDTO destination;
 }
\ No newline at end of file
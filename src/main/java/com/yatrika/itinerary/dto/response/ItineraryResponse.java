@@ -2,6 +2,7 @@ package com.yatrika.itinerary.dto.response;
 
 import lombok.Data;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class ItineraryResponse {
@@ -15,6 +16,10 @@ public class ItineraryResponse {
     private Long sourceId;
     private Integer totalDays;
     private String theme;
+    private String travellerNationality;
+    private Double averageRating;
+    private Integer ratingCount;
+    private Map<Integer, Integer> ratingHistogram;
     private List<ItineraryItemResponse> items;
     private ItinerarySummary summary;
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import java.util.Map;
 @Data
 public class ItinerarySummary {
     private BigDecimal totalEstimatedBudget;
+    private BigDecimal calculatedBudget;          // Engine total across all items
+    private Map<Integer, BigDecimal> dailyBudget; // dayNumber -> engine total for that day
     private long activityCount;
     private long completedActivities;
     private Map<String, Long> activityTypeBreakdown;
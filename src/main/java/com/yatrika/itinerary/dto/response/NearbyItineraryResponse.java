@@ -0,0 +1,17 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyItineraryResponse {
+    private Long id;
+    private String title;
+    private String theme;
+    private Boolean isAdminCreated;   // template (Tab 2) vs shared community trip
+    private Double distanceKm;        // closest approach of the trip to the searched point
+    private Integer matchedStops;     // how many of its destinations lie inside the radius
+}
@@ -0,0 +1,22 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+public class NextStopSuggestionResponse {
+    private Long destinationId;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+    private Double averageRating;
+    private Double detourKm;          // extra distance versus going straight from the previous to the next stop
+    private LocalTime arrivalTime;    // projected, after travel (and waiting for opening time)
+    private LocalTime departureTime;  // arrival + typical visit length
+    private Integer remainingMinutes; // spare time left before the next stop / end of day
+    private Double interestOverlap;   // share of the user's interests the place matches, 0..1
+    private Double score;
+}
@@ -0,0 +1,15 @@
+package com.yatrika.itinerary.dto.response;
+
+import com.yatrika.itinerary.domain.ScheduleConflictType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflictResponse {
+    private ScheduleConflictType type;
+    private Long otherItemId; // the clashing / previous stop, when there is one
+    private String message;
+}
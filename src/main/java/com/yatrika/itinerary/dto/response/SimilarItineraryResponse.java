@@ -0,0 +1,15 @@
+package com.yatrika.itinerary.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarItineraryResponse {
+    private Long id;
+    private String title;
+    private String theme;
+    private Double similarity; // Jaccard over destination ids + destination tags, 0..1
+}
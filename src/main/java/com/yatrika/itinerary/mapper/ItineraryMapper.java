@@ -9,7 +9,10 @@ import com.yatrika.destination.mapper.DestinationMapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring", uses = {DestinationMapper.class})
@@ -20,15 +23,30 @@ public abstract class ItineraryMapper {
     @Mapping(target = "summary", expression = "java(calculateSummary(itinerary))")
     public abstract ItineraryResponse toResponse(Itinerary itinerary);
 
+    // List rows ("My Trips"): items as in toResponse, but the summary starts empty and
+    // ItineraryBudgetService.applySummaries fills it for the whole page from one query
+    @Mapping(target = "items", source = "items")
+    @Mapping(target = "summary", expression = "java(emptySummary(itinerary))")
+    public abstract ItineraryResponse toListResponse(Itinerary itinerary);
+
     // Item mapping
     public abstract ItineraryItemResponse toItemResponse(ItineraryItem item);
 
+    protected ItinerarySummary emptySummary(Itinerary itinerary) {
+        ItinerarySummary summary = new ItinerarySummary();
+        summary.setTotalEstimatedBudget(itinerary.getEstimatedBudget());
+        summary.setActivityTypeBreakdown(new HashMap<>());
+        summary.setDailyBudget(new TreeMap<>());
+        return summary;
+    }
+
     // Custom logic to build the summary object
     protected ItinerarySummary calculateSummary(Itinerary itinerary) {
         if (itinerary == null) return null;
 
         ItinerarySummary summary = new ItinerarySummary();
         summary.setTotalEstimatedBudget(itinerary.getEstimatedBudget());
+        summary.setCalculatedBudget(itinerary.getCalculatedBudget());
 
         if (itinerary.getItems() != null && !itinerary.getItems().isEmpty()) {
             summary.setActivityCount(itinerary.getItems().size());
@@ -46,6 +64,16 @@ public abstract class ItineraryMapper {
                             Collectors.counting()
                     ));
             summary.setActivityTypeBreakdown(breakdown);
+
+            // Per-day totals from the costs the budget engine resolved on each item
+            Map<Integer, BigDecimal> daily = itinerary.getItems().stream()
+                    .filter(item -> item.getResolvedCost() != null)
+                    .collect(Collectors.groupingBy(
+                            item -> item.getDayNumber() != null ? item.getDayNumber() : 0,
+                            TreeMap::new,
+                            Collectors.reducing(BigDecimal.ZERO, ItineraryItem::getResolvedCost, BigDecimal::add)
+                    ));
+            summary.setDailyBudget(daily);
         }
 
         return summary;
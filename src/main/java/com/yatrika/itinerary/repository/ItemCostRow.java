@@ -0,0 +1,22 @@
+package com.yatrika.itinerary.repository;
+
+import com.yatrika.itinerary.domain.TravellerNationality;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat cost inputs (and visited flag) of one itinerary item, read in bulk for list summaries
+ * without loading Itinerary/ItineraryItem/Destination entities.
+ */
+public record ItemCostRow(
+        Long itineraryId,
+        Integer dayNumber,
+        String activityType,
+        BigDecimal estimatedCost,
+        BigDecimal resolvedCost,
+        BigDecimal entranceFeeLocal,
+        BigDecimal entranceFeeForeign,
+        TravellerNationality travellerNationality,
+        Boolean isVisited
+) {
+}
@@ -1,15 +1,21 @@
 package com.yatrika.itinerary.repository;
 
+import com.yatrika.destination.domain.Destination;
 import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
 import com.yatrika.itinerary.domain.ItineraryStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +36,10 @@ public interface ItineraryRepository extends JpaRepository<Itinerary, Long>, Jpa
     // Get all plans for "My Trips" tab, ordered by newest first
     Page<Itinerary> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    // Ids only, so a bulk export can load trips one at a time
+    @Query("SELECT i.id FROM Itinerary i WHERE i.userId = :userId ORDER BY i.createdAt DESC")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
     // Optimized detail fetch: Loads Itinerary + Items + Destination names in ONE database hit
     @Query("SELECT i FROM Itinerary i " +
             "LEFT JOIN FETCH i.items items " +
@@ -37,6 +47,38 @@ public interface ItineraryRepository extends JpaRepository<Itinerary, Long>, Jpa
             "WHERE i.id = :id")
     Optional<Itinerary> findByIdWithDetails(@Param("id") Long id);
 
+    // Opening hours of a trip's destinations, run after findByIdWithDetails in the same session so
+    // the already loaded destinations get them initialised (items and hours are both bags, so they
+    // cannot be fetched in one query)
+    @Query("SELECT DISTINCT d FROM ItineraryItem ii JOIN ii.destination d " +
+            "LEFT JOIN FETCH d.operatingHours " +
+            "WHERE ii.itinerary.id = :id")
+    List<Destination> fetchDestinationHours(@Param("id") Long id);
+
+
+    // One row per (shared trip, destination) for the in-memory trip indexes (similarity, trips-near-here)
+    @Query("SELECT i.id, i.title, i.theme, d.id, d.tags, i.status FROM Itinerary i " +
+            "LEFT JOIN i.items ii LEFT JOIN ii.destination d " +
+            "WHERE i.isPublic = true OR i.status = :template")
+    List<Object[]> findSharedItineraryDestinationRows(@Param("template") ItineraryStatus template);
+
+    // Budget inputs for a whole page of trips in one round trip (see ItineraryBudgetService)
+    @Query("SELECT new com.yatrika.itinerary.repository.ItemCostRow(" +
+            "it.id, i.dayNumber, i.activityType, i.estimatedCost, i.resolvedCost, " +
+            "d.entranceFeeLocal, d.entranceFeeForeign, it.travellerNationality, i.isVisited) " +
+            "FROM ItineraryItem i JOIN i.itinerary it LEFT JOIN i.destination d " +
+            "WHERE it.id IN :ids")
+    List<ItemCostRow> findItemCostRows(@Param("ids") Collection<Long> ids);
+
+    // Items whose resolved cost comes from this destination's entrance fee, with their trip
+    @Query("SELECT i FROM ItineraryItem i JOIN FETCH i.itinerary JOIN FETCH i.destination d " +
+            "WHERE d.id = :destinationId AND i.estimatedCost IS NULL")
+    List<ItineraryItem> findFeePricedItems(@Param("destinationId") Long destinationId);
+
+    // Trips saved before calculatedBudget existed, for ItineraryBudgetBackfill
+    @Query("SELECT i.id FROM Itinerary i WHERE i.calculatedBudget IS NULL ORDER BY i.id")
+    List<Long> findIdsWithoutCalculatedBudget(Limit limit);
+
 
     // --- SOCIAL & ANALYTICS ---
 
@@ -46,6 +88,52 @@ public interface ItineraryRepository extends JpaRepository<Itinerary, Long>, Jpa
     // Check if user already has a copy of this specific template
     boolean existsByUserIdAndSourceId(Long userId, Long sourceId);
 
+    // Atomic review aggregate update: 'added' / 'removed' are star values (1-5), 0 meaning none
+    @Modifying
+    @Query("UPDATE Itinerary i SET " +
+            "i.ratingSum = i.ratingSum + :added - :removed, " +
+            "i.ratingCount = i.ratingCount + SIGN(:added) - SIGN(:removed), " +
+            "i.ratingHistogram.oneStar = i.ratingHistogram.oneStar + (CASE WHEN :added = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 1 THEN 1 ELSE 0 END), " +
+            "i.ratingHistogram.twoStar = i.ratingHistogram.twoStar + (CASE WHEN :added = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 2 THEN 1 ELSE 0 END), " +
+            "i.ratingHistogram.threeStar = i.ratingHistogram.threeStar + (CASE WHEN :added = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 3 THEN 1 ELSE 0 END), " +
+            "i.ratingHistogram.fourStar = i.ratingHistogram.fourStar + (CASE WHEN :added = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 4 THEN 1 ELSE 0 END), " +
+            "i.ratingHistogram.fiveStar = i.ratingHistogram.fiveStar + (CASE WHEN :added = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 5 THEN 1 ELSE 0 END), " +
+            "i.averageRating = CASE WHEN i.ratingCount + SIGN(:added) - SIGN(:removed) > 0 " +
+            "THEN (i.ratingSum + :added - :removed) * 1.0 / (i.ratingCount + SIGN(:added) - SIGN(:removed)) ELSE 0 END " +
+            "WHERE i.id = :id")
+    int applyRatingChange(@Param("id") Long id, @Param("added") int added, @Param("removed") int removed);
+
+    default void addRating(Long id, int rating) {
+        applyRatingChange(id, rating, 0);
+    }
+
+    // Seeds the aggregate columns from itinerary_reviews for rows created before they existed
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE itineraries i SET
+            rating_sum = COALESCE(s.total, 0),
+            rating_count = COALESCE(s.cnt, 0),
+            rating_1_count = COALESCE(s.r1, 0),
+            rating_2_count = COALESCE(s.r2, 0),
+            rating_3_count = COALESCE(s.r3, 0),
+            rating_4_count = COALESCE(s.r4, 0),
+            rating_5_count = COALESCE(s.r5, 0),
+            average_rating = COALESCE(s.total::float8 / NULLIF(s.cnt, 0), 0)
+        FROM itineraries i2
+        LEFT JOIN (
+            SELECT itinerary_id, SUM(rating) AS total, COUNT(*) AS cnt,
+                   COUNT(*) FILTER (WHERE rating = 1) AS r1,
+                   COUNT(*) FILTER (WHERE rating = 2) AS r2,
+                   COUNT(*) FILTER (WHERE rating = 3) AS r3,
+                   COUNT(*) FILTER (WHERE rating = 4) AS r4,
+                   COUNT(*) FILTER (WHERE rating = 5) AS r5
+            FROM itinerary_reviews GROUP BY itinerary_id
+        ) s ON s.itinerary_id = i2.id
+        WHERE i.id = i2.id AND (i.rating_count IS NULL OR i.rating_5_count IS NULL)
+        """, nativeQuery = true)
+    int backfillRatingAggregates();
+
 
     // --- CLEANUP/MANAGEMENT ---
 
@@ -0,0 +1,12 @@
+package com.yatrika.itinerary.service;
+
+import com.yatrika.itinerary.dto.response.BudgetOptimizationResponse;
+
+import java.math.BigDecimal;
+
+public interface BudgetOptimizerService {
+
+    // Ranked plans of stop swaps (cheaper, similar, nearby destinations) that bring the trip under targetBudget
+    BudgetOptimizationResponse suggestSwaps(Long itineraryId, BigDecimal targetBudget, double radiusKm,
+                                            int maxPlans, Long userId);
+}
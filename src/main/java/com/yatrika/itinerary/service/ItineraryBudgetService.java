@@ -0,0 +1,34 @@
+package com.yatrika.itinerary.service;
+
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.TravellerNationality;
+import com.yatrika.itinerary.dto.response.ItinerarySummary;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface ItineraryBudgetService {
+
+    // --- INCREMENTAL MAINTENANCE ---
+    // onItemAdded / onItemRemoved: call before the item enters / leaves the trip's item list;
+    // onItemChanged: call after the item's fields are updated
+    void onItemAdded(Itinerary itinerary, ItineraryItem item);
+    void onItemChanged(Itinerary itinerary, ItineraryItem item);
+    void onItemRemoved(Itinerary itinerary, ItineraryItem item);
+
+    // Re-prices every item that took its cost from this destination's entrance fee
+    void onEntranceFeeChanged(Long destinationId);
+
+    // Full re-resolve, e.g. after the traveller nationality changes or a trip is copied
+    void recalculate(Itinerary itinerary);
+
+    // Cost rule on raw inputs, e.g. to price a substitute destination for an existing item
+    BigDecimal costOf(String activityType, BigDecimal estimatedCost, BigDecimal feeLocal, BigDecimal feeForeign,
+                      TravellerNationality nationality);
+
+    // --- BATCH EVALUATION ---
+    // One query for all ids; fills the item counts, type breakdown, calculatedBudget and dailyBudget
+    // of each (empty) list summary, so list pages never load the trips' items
+    void applySummaries(Map<Long, ItinerarySummary> summariesByItineraryId);
+}
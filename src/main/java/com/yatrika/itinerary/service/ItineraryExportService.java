@@ -0,0 +1,13 @@
+package com.yatrika.itinerary.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface ItineraryExportService {
+
+    // Access is checked eagerly; the returned body only writes, so nothing is buffered per document
+    StreamingResponseBody exportIcs(Long itineraryId, Long userId);
+    StreamingResponseBody exportGpx(Long itineraryId, Long userId);
+
+    // One .ics and one .gpx entry per trip, loading a single trip at a time
+    StreamingResponseBody exportAllAsZip(Long userId);
+}
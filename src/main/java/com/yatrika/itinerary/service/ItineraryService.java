@@ -3,7 +3,10 @@ package com.yatrika.itinerary.service;
 import com.yatrika.itinerary.dto.request.ItineraryFilterRequest;
 import com.yatrika.itinerary.dto.request.ItineraryItemRequest;
 import com.yatrika.itinerary.dto.request.ItineraryRequest;
+import com.yatrika.itinerary.dto.response.AdminTemplateSnapshot;
 import com.yatrika.itinerary.dto.response.ItineraryResponse;
+import com.yatrika.itinerary.dto.response.NearbyItineraryResponse;
+import com.yatrika.itinerary.dto.response.SimilarItineraryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -12,10 +15,13 @@ public interface ItineraryService {
 
     // --- CORE CREATION & DISCOVERY ---
     ItineraryResponse createEmptyTrip(ItineraryRequest request, Long userId);
-    List<ItineraryResponse> getAdminTemplates();
+    AdminTemplateSnapshot getAdminTemplatesSnapshot(); // pre-encoded Tab 2 payload + ETag
     Page<ItineraryResponse> getPublicCommunityTrips(Pageable pageable);
     ItineraryResponse getItineraryById(Long id);
     Page<ItineraryResponse> searchPublicItineraries(ItineraryFilterRequest filter, Pageable pageable);
+    List<SimilarItineraryResponse> getSimilarItineraries(Long itineraryId, int limit);
+    Page<NearbyItineraryResponse> getItinerariesNear(Long destinationId, Double latitude, Double longitude,
+                                                     double radiusKm, Pageable pageable); // around a destination or a point
 
     // --- PERSONAL MANAGEMENT ---
     Page<ItineraryResponse> getMyItineraries(Long userId, Pageable pageable);
@@ -32,8 +38,10 @@ public interface ItineraryService {
     void toggleItemVisited(Long itineraryId, Long itemId, Boolean visited, Long userId); // Added
     void reorderItems(Long itineraryId, List<Long> itemIdsInOrder, Long userId); // Added
     void removeItem(Long itineraryId, Long itemId, Long userId);
+    ItineraryResponse autoSplitIntoDays(Long itineraryId, int days, Long userId); // DRAFT only: regroups items by geography
 
     // --- ADMIN SPECIFIC ---
     ItineraryResponse createAdminTemplate(ItineraryRequest request);
     ItineraryResponse addItemToTemplate(Long templateId, ItineraryItemRequest itemRequest);
+    void onDestinationChanged(); // templates embed destination summaries; refreshes Tab 2 after the caller commits
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.yatrika.itinerary.service;
+
+import com.yatrika.itinerary.dto.response.NextStopSuggestionResponse;
+
+import java.util.List;
+
+public interface NextStopSuggestionService {
+
+    // position = insertion index within the day's items ordered by orderInDay (0 = before the first, null = append)
+    List<NextStopSuggestionResponse> suggest(Long itineraryId, Integer dayNumber, Integer position, int limit, Long userId);
+}
@@ -0,0 +1,17 @@
+package com.yatrika.itinerary.service;
+
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.dto.response.FeasibilityReportResponse;
+
+import java.util.Collection;
+
+public interface ScheduleFeasibilityService {
+
+    // Whole trip in one pass, with conflicts and slack per item
+    FeasibilityReportResponse checkTrip(Long itineraryId, Long userId);
+
+    // Incremental path for item edits: re-checks only the given days and stores the outcome on their items
+    void recheckDays(Itinerary itinerary, Collection<Integer> dayNumbers);
+
+    void recheckAllDays(Itinerary itinerary);
+}
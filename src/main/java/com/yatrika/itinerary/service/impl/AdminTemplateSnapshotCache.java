@@ -0,0 +1,94 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.dto.response.AdminTemplateSnapshot;
+import com.yatrika.itinerary.dto.response.ItineraryResponse;
+import com.yatrika.itinerary.mapper.ItineraryMapper;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the serialized Tab 2 list. Reads are a volatile field access; the
+ * list is only re-queried and re-encoded after a template write commits.
+ */
+@Component
+@Slf4j
+public class AdminTemplateSnapshotCache {
+
+    private final ItineraryRepository itineraryRepository;
+    private final ItineraryMapper itineraryMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    private volatile AdminTemplateSnapshot snapshot;
+    // Bumped on every invalidation so a rebuild that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+
+    public AdminTemplateSnapshotCache(ItineraryRepository itineraryRepository,
+                                      ItineraryMapper itineraryMapper,
+                                      ObjectMapper objectMapper,
+                                      PlatformTransactionManager transactionManager) {
+        this.itineraryRepository = itineraryRepository;
+        this.itineraryMapper = itineraryMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public AdminTemplateSnapshot get() {
+        AdminTemplateSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    // Drops the snapshot once the surrounding transaction commits (immediately if there is none)
+    public void invalidateAfterCommit() {
+        AfterCommit.run(this::invalidate);
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized AdminTemplateSnapshot rebuild() {
+        AdminTemplateSnapshot current = snapshot;
+        if (current != null) return current;
+
+        long startedAt = generation.get();
+        List<ItineraryResponse> templates = readOnlyTx.execute(status ->
+                itineraryRepository.findByStatusAndIsAdminCreatedTrue(ItineraryStatus.TEMPLATE)
+                        .stream().map(itineraryMapper::toResponse).toList());
+
+        AdminTemplateSnapshot built = encode(templates);
+        if (generation.get() == startedAt) {
+            snapshot = built;
+            log.debug("Admin template snapshot rebuilt: {} templates, {} bytes", templates.size(), built.json().length);
+        }
+        return built;
+    }
+
+    private AdminTemplateSnapshot encode(List<ItineraryResponse> templates) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(templates);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new AdminTemplateSnapshot(json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new AppException("Failed to encode admin templates", e);
+        }
+    }
+}
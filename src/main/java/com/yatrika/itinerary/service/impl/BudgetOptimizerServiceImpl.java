@@ -0,0 +1,449 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.destination.service.DestinationAttributeIndex;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.TravellerNationality;
+import com.yatrika.itinerary.dto.response.BudgetOptimizationResponse;
+import com.yatrika.itinerary.dto.response.BudgetSwapPlanResponse;
+import com.yatrika.itinerary.dto.response.BudgetSwapResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.BudgetOptimizerService;
+import com.yatrika.itinerary.service.ItineraryBudgetService;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static com.yatrika.destination.service.DestinationAttributeIndex.CLOSED;
+import static com.yatrika.destination.service.DestinationAttributeIndex.UNKNOWN;
+
+/**
+ * Swaps stops for cheaper, similar destinations nearby until the trip fits a target budget.
+ * Every swappable item is a slot whose options are "keep" plus its best substitutes; a plan
+ * picks one option per slot. Plans are scored by total rating minus a per-km detour penalty
+ * and must stay under the target cost. Small option spaces are enumerated exactly, larger
+ * ones get a greedy repair followed by annealed local search bounded by a wall-clock budget.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BudgetOptimizerServiceImpl implements BudgetOptimizerService {
+
+    private static final int DEFAULT_STAY_MINUTES = 60;
+    private static final int STAY_TOLERANCE_MINUTES = 30;
+    private static final int EXHAUSTIVE_LIMIT = 20_000;
+
+    private final ItineraryRepository itineraryRepository;
+    private final ItineraryBudgetService budgetService;
+    private final DestinationAttributeIndex destinationIndex;
+    private final TravelTimeEstimator travelTime;
+    private final int substitutesPerSlot;
+    private final double ratingTolerance;
+    private final double minTagSimilarity;
+    private final double detourPenaltyPerKm;
+    private final long timeBudgetNanos;
+
+    public BudgetOptimizerServiceImpl(ItineraryRepository itineraryRepository,
+                                      ItineraryBudgetService budgetService,
+                                      DestinationAttributeIndex destinationIndex,
+                                      TravelTimeEstimator travelTime,
+                                      @Value("${app.budget-optimizer.substitutes-per-slot:8}") int substitutesPerSlot,
+                                      @Value("${app.budget-optimizer.rating-tolerance:0.5}") double ratingTolerance,
+                                      @Value("${app.budget-optimizer.min-tag-similarity:0.5}") double minTagSimilarity,
+                                      @Value("${app.budget-optimizer.detour-penalty-per-km:0.05}") double detourPenaltyPerKm,
+                                      @Value("${app.budget-optimizer.time-budget:PT0.1S}") Duration timeBudget) {
+        this.itineraryRepository = itineraryRepository;
+        this.budgetService = budgetService;
+        this.destinationIndex = destinationIndex;
+        this.travelTime = travelTime;
+        this.substitutesPerSlot = substitutesPerSlot;
+        this.ratingTolerance = ratingTolerance;
+        this.minTagSimilarity = minTagSimilarity;
+        this.detourPenaltyPerKm = detourPenaltyPerKm;
+        this.timeBudgetNanos = timeBudget.toNanos();
+    }
+
+    // One choice for a slot; option 0 of every slot is "keep the current stop"
+    private record Option(int destination, double cost, double score, double distanceKm) {}
+
+    private record Slot(ItineraryItem item, Option[] options) {}
+
+    @Override
+    public BudgetOptimizationResponse suggestSwaps(Long itineraryId, BigDecimal targetBudget, double radiusKm,
+                                                   int maxPlans, Long userId) {
+        if (targetBudget == null || targetBudget.signum() < 0) {
+            throw new AppException("Target budget must be zero or positive");
+        }
+        Itinerary itinerary = itineraryRepository.findByIdWithDetails(itineraryId)
+                .filter(it -> Objects.equals(it.getUserId(), userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+
+        DestinationAttributeIndex.Snapshot index = destinationIndex.get();
+        TravellerNationality nationality = itinerary.getTravellerNationality();
+        double target = targetBudget.doubleValue();
+
+        // Destinations already on the trip are never offered as substitutes
+        Set<Integer> onTrip = new HashSet<>();
+        for (ItineraryItem item : itinerary.getItems()) {
+            Integer pos = item.getDestination() != null ? index.positionOf(item.getDestination().getId()) : null;
+            if (pos != null) onTrip.add(pos);
+        }
+
+        double fixedCost = 0;
+        List<Slot> slots = new ArrayList<>();
+        Map<Integer, List<ItineraryItem>> days = new TreeMap<>();
+        for (ItineraryItem item : itinerary.getItems()) {
+            days.computeIfAbsent(item.getDayNumber() == null ? 0 : item.getDayNumber(), d -> new ArrayList<>()).add(item);
+        }
+        for (List<ItineraryItem> day : days.values()) {
+            day.sort(Comparator.comparing(ItineraryItem::getOrderInDay, Comparator.nullsLast(Comparator.naturalOrder())));
+            for (int i = 0; i < day.size(); i++) {
+                ItineraryItem item = day.get(i);
+                double cost = costOf(item, item.getDestination(), nationality);
+                Option[] options = item.getEstimatedCost() == null
+                        ? options(itinerary, item, cost, i > 0 ? day.get(i - 1) : null,
+                                  i + 1 < day.size() ? day.get(i + 1) : null, onTrip, index, radiusKm, nationality)
+                        : null;
+                if (options == null || options.length < 2) {
+                    fixedCost += cost;
+                } else {
+                    slots.add(new Slot(item, options));
+                }
+            }
+        }
+
+        double currentCost = fixedCost;
+        for (Slot slot : slots) currentCost += slot.options()[0].cost();
+
+        BudgetOptimizationResponse response = new BudgetOptimizationResponse();
+        response.setItineraryId(itineraryId);
+        response.setCurrentCost(money(currentCost));
+        response.setTargetBudget(targetBudget);
+        response.setAlreadyWithinBudget(currentCost <= target);
+        if (currentCost <= target || slots.isEmpty()) {
+            return response;
+        }
+
+        Search search = new Search(slots, fixedCost, target, maxPlans);
+        search.run(timeBudgetNanos);
+
+        int rank = 1;
+        for (int[] choice : search.rankedPlans()) {
+            response.getPlans().add(toPlan(rank++, choice, slots, search, currentCost, index));
+        }
+        return response;
+    }
+
+    // --- CANDIDATES ---
+
+    private Option[] options(Itinerary itinerary, ItineraryItem item, double cost,
+                             ItineraryItem prev, ItineraryItem next, Set<Integer> onTrip,
+                             DestinationAttributeIndex.Snapshot index, double radiusKm,
+                             TravellerNationality nationality) {
+        if (item.getDestination() == null) return null;
+        Integer pos = index.positionOf(item.getDestination().getId());
+        if (pos == null || Double.isNaN(index.latitude(pos))) return null;
+
+        double lat = index.latitude(pos), lon = index.longitude(pos);
+        double rating = index.rating(pos);
+        int[] tags = index.tagIds(pos);
+        Option keep = new Option(pos, cost, rating, 0);
+
+        // Time the slot can give a substitute: the planned window (or the current stay) plus any slack
+        int stay = index.stayMinutes(pos) == UNKNOWN ? DEFAULT_STAY_MINUTES : index.stayMinutes(pos);
+        int allowance = item.getStartTime() != null && item.getEndTime() != null
+                ? (int) Duration.between(item.getStartTime(), item.getEndTime()).toMinutes()
+                : stay + STAY_TOLERANCE_MINUTES;
+        if (item.getSlackMinutes() != null && item.getSlackMinutes() > 0) allowance += item.getSlackMinutes();
+
+        int weekday = itinerary.getStartDate() == null || item.getDayNumber() == null ? -1
+                : itinerary.getStartDate().plusDays(item.getDayNumber() - 1L).getDayOfWeek().getValue() % 7;
+        double baseLeg = leg(prev, lat, lon, index) + leg(next, lat, lon, index);
+
+        PriorityQueue<Option> best = new PriorityQueue<>(Comparator.comparingDouble(Option::score));
+        for (int c : index.within(lat, lon, radiusKm)) {
+            if (c == pos || onTrip.contains(c)) continue;
+            if (index.rating(c) < rating - ratingTolerance) continue;
+            if (tags.length > 0 && jaccard(tags, index.tagIds(c)) < minTagSimilarity) continue;
+            if (weekday >= 0 && index.opensAt(c, weekday) == CLOSED) continue;
+
+            double candidateCost = costOf(item.getActivityType(), index.feeLocal(c), index.feeForeign(c), nationality);
+            if (candidateCost >= cost) continue;
+
+            double cLat = index.latitude(c), cLon = index.longitude(c);
+            // Extra route length when the substitute replaces the stop between its neighbours
+            double detour = prev == null && next == null
+                    ? 2 * travelTime.km(lat, lon, cLat, cLon)
+                    : Math.max(0, leg(prev, cLat, cLon, index) + leg(next, cLat, cLon, index) - baseLeg);
+            int candidateStay = index.stayMinutes(c) == UNKNOWN ? DEFAULT_STAY_MINUTES : index.stayMinutes(c);
+            if (candidateStay + travelTime.minutesForKm(detour) > allowance) continue;
+
+            best.add(new Option(c, candidateCost, index.rating(c) - detourPenaltyPerKm * detour,
+                    DestinationAttributeIndex.Snapshot.distanceKm(lat, lon, cLat, cLon)));
+            if (best.size() > substitutesPerSlot) best.poll();
+        }
+
+        Option[] options = new Option[best.size() + 1];
+        options[0] = keep;
+        for (int i = options.length - 1; i > 0; i--) options[i] = best.poll();
+        return options;
+    }
+
+    // Tags, category and type all share one id space, so a shared type alone is not enough
+    private static double jaccard(int[] a, int[] b) {
+        int common = DestinationAttributeIndex.Snapshot.overlapCount(a, b);
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    // Leg length from a neighbouring item to a point; unlocated or missing neighbours add nothing
+    private double leg(ItineraryItem neighbour, double lat, double lon, DestinationAttributeIndex.Snapshot index) {
+        if (neighbour == null || neighbour.getDestination() == null) return 0;
+        Integer pos = index.positionOf(neighbour.getDestination().getId());
+        if (pos == null || Double.isNaN(index.latitude(pos))) return 0;
+        return travelTime.km(index.latitude(pos), index.longitude(pos), lat, lon);
+    }
+
+    private double costOf(ItineraryItem item, Destination destination, TravellerNationality nationality) {
+        BigDecimal cost = budgetService.costOf(item.getActivityType(), item.getEstimatedCost(),
+                destination != null ? destination.getEntranceFeeLocal() : null,
+                destination != null ? destination.getEntranceFeeForeign() : null, nationality);
+        return cost == null ? 0 : cost.doubleValue();
+    }
+
+    private double costOf(String activityType, double feeLocal, double feeForeign, TravellerNationality nationality) {
+        BigDecimal cost = budgetService.costOf(activityType, null, BigDecimal.valueOf(feeLocal),
+                BigDecimal.valueOf(feeForeign), nationality);
+        return cost == null ? 0 : cost.doubleValue();
+    }
+
+    // --- SEARCH ---
+
+    private static final class Search {
+        private final List<Slot> slots;
+        private final double fixedCost;
+        private final double target;
+        private final int maxPlans;
+        // Distinct feasible plans, worst on top so the heap keeps the best maxPlans
+        private final PriorityQueue<int[]> top;
+        private final Set<String> seen = new HashSet<>();
+        private int[] cheapest;
+        private double cheapestCost = Double.MAX_VALUE;
+
+        Search(List<Slot> slots, double fixedCost, double target, int maxPlans) {
+            this.slots = slots;
+            this.fixedCost = fixedCost;
+            this.target = target;
+            this.maxPlans = maxPlans;
+            this.top = new PriorityQueue<>(this::compareRank);
+        }
+
+        void run(long budgetNanos) {
+            long space = 1;
+            for (Slot slot : slots) {
+                space *= slot.options().length;
+                if (space > EXHAUSTIVE_LIMIT) break;
+            }
+            if (space <= EXHAUSTIVE_LIMIT) {
+                enumerate(0, new int[slots.size()], new HashSet<>());
+            } else {
+                localSearch(System.nanoTime() + budgetNanos);
+            }
+        }
+
+        private void enumerate(int s, int[] choice, Set<Integer> used) {
+            if (s == slots.size()) {
+                offer(choice);
+                return;
+            }
+            Option[] options = slots.get(s).options();
+            for (int o = 0; o < options.length; o++) {
+                int destination = options[o].destination();
+                if (o > 0 && used.contains(destination)) continue;
+                if (o > 0) used.add(destination);
+                choice[s] = o;
+                enumerate(s + 1, choice, used);
+                if (o > 0) used.remove(destination);
+            }
+        }
+
+        private void localSearch(long deadline) {
+            SplittableRandom random = new SplittableRandom(slots.size() * 31L + Double.hashCode(target));
+            int[] start = greedyRepair();
+            int[] current = start.clone();
+            double temperature = 1.0;
+            long iterations = 0;
+            while (true) {
+                if ((++iterations & 255) == 0) {
+                    if (System.nanoTime() >= deadline) break;
+                    temperature = Math.max(0.01, temperature * 0.95);
+                    // Restart from a shaken copy of the repaired plan to reach other basins
+                    if ((iterations & 4095) == 0) {
+                        current = start.clone();
+                        for (int k = 0; k < Math.max(1, slots.size() / 4); k++) {
+                            int s = random.nextInt(slots.size());
+                            current[s] = random.nextInt(slots.get(s).options().length);
+                        }
+                        if (conflicts(current)) current = start.clone();
+                    }
+                }
+                int s = random.nextInt(slots.size());
+                int o = random.nextInt(slots.get(s).options().length);
+                if (o == current[s]) continue;
+                int previous = current[s];
+                current[s] = o;
+                if (conflicts(current)) {
+                    current[s] = previous;
+                    continue;
+                }
+                double cost = cost(current);
+                double delta = slots.get(s).options()[o].score() - slots.get(s).options()[previous].score();
+                boolean feasible = cost <= target;
+                boolean wasFeasible = cost - slots.get(s).options()[o].cost() + slots.get(s).options()[previous].cost() <= target;
+                boolean accept = feasible
+                        ? !wasFeasible || delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)
+                        : !wasFeasible && slots.get(s).options()[o].cost() < slots.get(s).options()[previous].cost();
+                if (accept) {
+                    offer(current);
+                } else {
+                    current[s] = previous;
+                }
+            }
+        }
+
+        // Repeatedly applies the swap with the most saving per point of score lost until the plan fits
+        private int[] greedyRepair() {
+            int[] choice = new int[slots.size()];
+            double cost = cost(choice);
+            while (cost > target) {
+                int bestSlot = -1, bestOption = -1;
+                double bestRatio = -1;
+                for (int s = 0; s < slots.size(); s++) {
+                    Option current = slots.get(s).options()[choice[s]];
+                    for (int o = 1; o < slots.get(s).options().length; o++) {
+                        Option option = slots.get(s).options()[o];
+                        double saving = current.cost() - option.cost();
+                        if (saving <= 0) continue;
+                        int previous = choice[s];
+                        choice[s] = o;
+                        boolean clash = conflicts(choice);
+                        choice[s] = previous;
+                        if (clash) continue;
+                        double ratio = saving / (1 + Math.max(0, current.score() - option.score()));
+                        if (ratio > bestRatio) {
+                            bestRatio = ratio;
+                            bestSlot = s;
+                            bestOption = o;
+                        }
+                    }
+                }
+                if (bestSlot < 0) break;
+                choice[bestSlot] = bestOption;
+                cost = cost(choice);
+            }
+            offer(choice);
+            return choice;
+        }
+
+        private boolean conflicts(int[] choice) {
+            Set<Integer> used = new HashSet<>();
+            for (int s = 0; s < choice.length; s++) {
+                if (choice[s] > 0 && !used.add(slots.get(s).options()[choice[s]].destination())) return true;
+            }
+            return false;
+        }
+
+        private void offer(int[] choice) {
+            double cost = cost(choice);
+            if (cost > target) {
+                if (cost < cheapestCost) {
+                    cheapestCost = cost;
+                    cheapest = choice.clone();
+                }
+                return;
+            }
+            if (!seen.add(Arrays.toString(choice))) return;
+            top.add(choice.clone());
+            if (top.size() > maxPlans) top.poll();
+        }
+
+        // Feasible plans best-first; if nothing fits, the cheapest plan found as a best effort
+        List<int[]> rankedPlans() {
+            List<int[]> plans = new ArrayList<>(top);
+            plans.sort(this::compareRank);
+            Collections.reverse(plans);
+            if (plans.isEmpty() && cheapest != null) plans.add(cheapest);
+            return plans;
+        }
+
+        // Ascending = worse: lower score, then higher cost
+        private int compareRank(int[] a, int[] b) {
+            int byScore = Double.compare(score(a), score(b));
+            return byScore != 0 ? byScore : Double.compare(cost(b), cost(a));
+        }
+
+        double cost(int[] choice) {
+            double total = fixedCost;
+            for (int s = 0; s < choice.length; s++) total += slots.get(s).options()[choice[s]].cost();
+            return total;
+        }
+
+        double score(int[] choice) {
+            double total = 0;
+            for (int s = 0; s < choice.length; s++) total += slots.get(s).options()[choice[s]].score();
+            return total;
+        }
+    }
+
+    // --- RESPONSE ---
+
+    private BudgetSwapPlanResponse toPlan(int rank, int[] choice, List<Slot> slots, Search search,
+                                          double currentCost, DestinationAttributeIndex.Snapshot index) {
+        double cost = search.cost(choice);
+        BudgetSwapPlanResponse plan = new BudgetSwapPlanResponse();
+        plan.setRank(rank);
+        plan.setWithinBudget(cost <= search.target);
+        plan.setTotalCost(money(cost));
+        plan.setSavings(money(currentCost - cost));
+        plan.setScore(Math.round(search.score(choice) * 100) / 100.0);
+        for (int s = 0; s < choice.length; s++) {
+            if (choice[s] == 0) continue;
+            Slot slot = slots.get(s);
+            Option from = slot.options()[0];
+            Option to = slot.options()[choice[s]];
+            plan.getSwaps().add(new BudgetSwapResponse(
+                    slot.item().getId(),
+                    slot.item().getDayNumber(),
+                    index.id(from.destination()),
+                    index.name(from.destination()),
+                    index.id(to.destination()),
+                    index.name(to.destination()),
+                    money(to.cost() - from.cost()),
+                    Math.round((index.rating(to.destination()) - index.rating(from.destination())) * 100) / 100.0,
+                    Math.round(to.distanceKm() * 10) / 10.0));
+        }
+        return plan;
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
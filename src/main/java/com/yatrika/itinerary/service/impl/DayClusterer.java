@@ -0,0 +1,290 @@
+package com.yatrika.itinerary.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Splits weighted points into k day-groups of bounded total weight (capacitated k-medoids),
+ * orders each group as a short route, and keeps the cheapest of several randomized restarts
+ * plus one angular-sweep solution. The chosen days are then chained so each one starts near
+ * where the previous one ended. Pure computation on a precomputed distance matrix.
+ */
+final class DayClusterer {
+
+    private static final int MAX_ITERATIONS = 25;
+    private static final double CAPACITY_SLACK = 1.15;
+
+    private final double[][] dist;
+    private final double[] weight;
+    private final double[] lat;
+    private final double[] lon;
+    private final int n;
+    private final int k;
+    private final double capacity;
+
+    /**
+     * Chosen split: days[d] = point indices in visiting order, days in travel order starting with
+     * the day that visits point 0, empty days left out; cost = summed route length within days.
+     */
+    record Plan(List<int[]> days, double cost) {
+    }
+
+    /** Distance between two points, e.g. {@link TravelTimeEstimator#km}. */
+    @FunctionalInterface
+    interface Metric {
+        double between(double lat1, double lon1, double lat2, double lon2);
+    }
+
+    DayClusterer(double[] weight, double[] lat, double[] lon, int k, Metric metric) {
+        this(distances(lat, lon, metric), weight, lat, lon, k);
+    }
+
+    DayClusterer(double[][] dist, double[] weight, double[] lat, double[] lon, int k) {
+        this.dist = dist;
+        this.weight = weight;
+        this.lat = lat;
+        this.lon = lon;
+        this.n = weight.length;
+        this.k = k;
+        double total = Arrays.stream(weight).sum();
+        double heaviest = Arrays.stream(weight).max().orElse(1);
+        this.capacity = Math.max(heaviest, total / k * CAPACITY_SLACK);
+    }
+
+    Plan solve(int restarts, long seed) {
+        Plan sweep = toPlan(sweepAssignment());
+        Plan medoids = IntStream.range(0, restarts).parallel()
+                .mapToObj(r -> toPlan(kMedoids(new SplittableRandom(seed + r))))
+                .min(Comparator.comparingDouble(Plan::cost))
+                .orElse(sweep);
+        return chain(medoids.cost() <= sweep.cost() ? medoids : sweep);
+    }
+
+    private static double[][] distances(double[] lat, double[] lon, Metric metric) {
+        int n = lat.length;
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) dist[i][j] = dist[j][i] = metric.between(lat[i], lon[i], lat[j], lon[j]);
+        }
+        return dist;
+    }
+
+    // ================= CAPACITATED K-MEDOIDS =================
+
+    private int[] kMedoids(SplittableRandom random) {
+        int[] medoids = seedMedoids(random);
+        int[] assignment = assign(medoids);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            int[] updated = updateMedoids(assignment, medoids);
+            if (Arrays.equals(updated, medoids)) break;
+            medoids = updated;
+            assignment = assign(medoids);
+        }
+        return assignment;
+    }
+
+    // k-means++ style: each next medoid is drawn proportionally to squared distance from the chosen ones
+    private int[] seedMedoids(SplittableRandom random) {
+        int[] medoids = new int[k];
+        double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.MAX_VALUE);
+        medoids[0] = random.nextInt(n);
+        for (int c = 1; c < k; c++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                nearest[i] = Math.min(nearest[i], dist[i][medoids[c - 1]]);
+                sum += nearest[i] * nearest[i];
+            }
+            double target = random.nextDouble() * sum;
+            int pick = random.nextInt(n);
+            for (int i = 0; i < n && sum > 0; i++) {
+                target -= nearest[i] * nearest[i];
+                if (target <= 0) { pick = i; break; }
+            }
+            medoids[c] = pick;
+        }
+        return medoids;
+    }
+
+    // Points with the most to lose (largest regret between best and second-best medoid) choose first
+    private int[] assign(int[] medoids) {
+        Integer[] order = new Integer[n];
+        double[] regret = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            double best = Double.MAX_VALUE, second = Double.MAX_VALUE;
+            for (int m : medoids) {
+                double d = dist[i][m];
+                if (d < best) { second = best; best = d; }
+                else if (d < second) second = d;
+            }
+            regret[i] = second == Double.MAX_VALUE ? 0 : second - best;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(regret[b], regret[a]));
+
+        int[] assignment = new int[n];
+        double[] load = new double[k];
+        for (int i : order) {
+            int chosen = -1;
+            for (int c = 0; c < k; c++) {
+                if (load[c] + weight[i] > capacity) continue;
+                if (chosen < 0 || dist[i][medoids[c]] < dist[i][medoids[chosen]]) chosen = c;
+            }
+            if (chosen < 0) chosen = lightest(load); // nothing fits: overfill the lightest day
+            assignment[i] = chosen;
+            load[chosen] += weight[i];
+        }
+        return assignment;
+    }
+
+    private int[] updateMedoids(int[] assignment, int[] current) {
+        int[] medoids = current.clone();
+        for (int c = 0; c < k; c++) {
+            double bestCost = Double.MAX_VALUE;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (assignment[candidate] != c) continue;
+                double cost = 0;
+                for (int i = 0; i < n; i++) {
+                    if (assignment[i] == c) cost += dist[candidate][i] * weight[i];
+                }
+                if (cost < bestCost) { bestCost = cost; medoids[c] = candidate; }
+            }
+        }
+        return medoids;
+    }
+
+    // ================= SWEEP =================
+
+    // Sort by bearing around the centroid and cut the circle into k arcs of roughly equal weight
+    private int[] sweepAssignment() {
+        double cLat = Arrays.stream(lat).average().orElse(0);
+        double cLon = Arrays.stream(lon).average().orElse(0);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble(i -> Math.atan2(lat[i] - cLat, lon[i] - cLon)));
+
+        double target = Arrays.stream(weight).sum() / k;
+        int[] assignment = new int[n];
+        int day = 0;
+        double load = 0;
+        for (int i : order) {
+            if (load >= target && day < k - 1) { day++; load = 0; }
+            assignment[i] = day;
+            load += weight[i];
+        }
+        return assignment;
+    }
+
+    // ================= ROUTING & COST =================
+
+    private Plan toPlan(int[] assignment) {
+        List<int[]> days = new ArrayList<>(k);
+        double cost = 0;
+        for (int c = 0; c < k; c++) {
+            int size = 0;
+            for (int a : assignment) if (a == c) size++;
+            int[] members = new int[size];
+            for (int i = 0, j = 0; i < n; i++) if (assignment[i] == c) members[j++] = i;
+            int[] route = route(members);
+            days.add(route);
+            cost += length(route);
+        }
+        return new Plan(days, cost);
+    }
+
+    // Nearest-neighbour from an extreme point, then 2-opt until no swap shortens the path
+    private int[] route(int[] members) {
+        if (members.length < 3) return members;
+        int m = members.length;
+        int start = 0;
+        double far = -1;
+        for (int a = 0; a < m; a++) {
+            double sum = 0;
+            for (int b = 0; b < m; b++) sum += dist[members[a]][members[b]];
+            if (sum > far) { far = sum; start = a; }
+        }
+        int[] route = new int[m];
+        boolean[] used = new boolean[m];
+        route[0] = members[start];
+        used[start] = true;
+        for (int step = 1; step < m; step++) {
+            int last = route[step - 1], pick = -1;
+            for (int b = 0; b < m; b++) {
+                if (!used[b] && (pick < 0 || dist[last][members[b]] < dist[last][members[pick]])) pick = b;
+            }
+            used[pick] = true;
+            route[step] = members[pick];
+        }
+
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < m - 2; i++) {
+                for (int j = i + 2; j < m; j++) {
+                    double before = dist[route[i]][route[i + 1]] + (j + 1 < m ? dist[route[j]][route[j + 1]] : 0);
+                    double after = dist[route[i]][route[j]] + (j + 1 < m ? dist[route[i + 1]][route[j + 1]] : 0);
+                    if (after + 1e-9 < before) {
+                        for (int a = i + 1, b = j; a < b; a++, b--) {
+                            int t = route[a]; route[a] = route[b]; route[b] = t;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return route;
+    }
+
+    // ================= INTER-DAY ORDER =================
+
+    // Greedy chain: after each day, go to the unvisited day whose nearer end is closest, reversing it if needed
+    private Plan chain(Plan plan) {
+        List<int[]> remaining = new ArrayList<>(plan.days());
+        remaining.removeIf(route -> route.length == 0);
+        List<int[]> ordered = new ArrayList<>(remaining.size());
+        int[] current = remaining.stream()
+                .filter(route -> Arrays.stream(route).anyMatch(i -> i == 0))
+                .findFirst().orElse(remaining.isEmpty() ? null : remaining.get(0));
+        remaining.remove(current);
+        while (current != null) {
+            ordered.add(current);
+            int last = current[current.length - 1];
+            int[] next = null;
+            boolean reverse = false;
+            double nearest = Double.MAX_VALUE;
+            for (int[] candidate : remaining) {
+                if (dist[last][candidate[0]] < nearest) {
+                    nearest = dist[last][candidate[0]]; next = candidate; reverse = false;
+                }
+                if (dist[last][candidate[candidate.length - 1]] < nearest) {
+                    nearest = dist[last][candidate[candidate.length - 1]]; next = candidate; reverse = true;
+                }
+            }
+            remaining.remove(next);
+            current = next != null && reverse ? reversed(next) : next;
+        }
+        return new Plan(ordered, plan.cost());
+    }
+
+    private static int[] reversed(int[] route) {
+        int[] copy = new int[route.length];
+        for (int i = 0; i < route.length; i++) copy[i] = route[route.length - 1 - i];
+        return copy;
+    }
+
+    private double length(int[] route) {
+        double total = 0;
+        for (int i = 1; i < route.length; i++) total += dist[route[i - 1]][route[i]];
+        return total;
+    }
+
+    private static int lightest(double[] load) {
+        int best = 0;
+        for (int c = 1; c < load.length; c++) if (load[c] < load[best]) best = c;
+        return best;
+    }
+}
@@ -0,0 +1,147 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.TravellerNationality;
+import com.yatrika.itinerary.dto.response.ItinerarySummary;
+import com.yatrika.itinerary.repository.ItemCostRow;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.ItineraryBudgetService;
+import com.yatrika.shared.config.BudgetProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ItineraryBudgetServiceImpl implements ItineraryBudgetService {
+
+    private final ItineraryRepository itineraryRepository;
+    private final BudgetProperties budgetProperties;
+
+    // ================= INCREMENTAL MAINTENANCE =================
+
+    // A trip saved before calculatedBudget existed has a NULL total and unresolved items, so its
+    // first change re-resolves everything instead of applying a delta to nothing
+
+    @Override
+    public void onItemAdded(Itinerary itinerary, ItineraryItem item) {
+        if (itinerary.getCalculatedBudget() == null) {
+            recalculate(itinerary); // the new item is not in the list yet
+        }
+        BigDecimal cost = resolveCost(item, itinerary.getTravellerNationality());
+        item.setResolvedCost(cost);
+        itinerary.setCalculatedBudget(itinerary.getCalculatedBudget().add(cost));
+    }
+
+    @Override
+    public void onItemChanged(Itinerary itinerary, ItineraryItem item) {
+        if (itinerary.getCalculatedBudget() == null) {
+            recalculate(itinerary);
+            return;
+        }
+        BigDecimal previous = orZero(item.getResolvedCost());
+        BigDecimal cost = resolveCost(item, itinerary.getTravellerNationality());
+        item.setResolvedCost(cost);
+        itinerary.setCalculatedBudget(itinerary.getCalculatedBudget().add(cost).subtract(previous));
+    }
+
+    @Override
+    public void onItemRemoved(Itinerary itinerary, ItineraryItem item) {
+        if (itinerary.getCalculatedBudget() == null) {
+            recalculate(itinerary); // still includes the item being removed
+        }
+        itinerary.setCalculatedBudget(itinerary.getCalculatedBudget().subtract(orZero(item.getResolvedCost())));
+    }
+
+    @Override
+    public void onEntranceFeeChanged(Long destinationId) {
+        // Items with an explicit cost never priced the fee in; the rest move their trip's total by the difference
+        for (ItineraryItem item : itineraryRepository.findFeePricedItems(destinationId)) {
+            Itinerary itinerary = item.getItinerary();
+            BigDecimal previous = item.getResolvedCost();
+            BigDecimal cost = resolveCost(item, itinerary.getTravellerNationality());
+            item.setResolvedCost(cost);
+            if (itinerary.getCalculatedBudget() != null && previous != null) {
+                itinerary.setCalculatedBudget(itinerary.getCalculatedBudget().add(cost).subtract(previous));
+            }
+        }
+    }
+
+    @Override
+    public void recalculate(Itinerary itinerary) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ItineraryItem item : itinerary.getItems()) {
+            BigDecimal cost = resolveCost(item, itinerary.getTravellerNationality());
+            item.setResolvedCost(cost);
+            total = total.add(cost);
+        }
+        itinerary.setCalculatedBudget(total);
+    }
+
+    // ================= BATCH EVALUATION =================
+
+    @Override
+    public void applySummaries(Map<Long, ItinerarySummary> summariesByItineraryId) {
+        if (summariesByItineraryId.isEmpty()) return;
+
+        for (ItemCostRow row : itineraryRepository.findItemCostRows(summariesByItineraryId.keySet())) {
+            ItinerarySummary summary = summariesByItineraryId.get(row.itineraryId());
+            summary.setActivityCount(summary.getActivityCount() + 1);
+            if (Boolean.TRUE.equals(row.isVisited())) {
+                summary.setCompletedActivities(summary.getCompletedActivities() + 1);
+            }
+            summary.getActivityTypeBreakdown().merge(row.activityType() != null ? row.activityType() : "OTHER", 1L, Long::sum);
+
+            BigDecimal cost = row.resolvedCost() != null
+                    ? row.resolvedCost()
+                    : resolveCost(row.activityType(), row.estimatedCost(),
+                    row.entranceFeeLocal(), row.entranceFeeForeign(), row.travellerNationality());
+            int day = row.dayNumber() != null ? row.dayNumber() : 0;
+            summary.getDailyBudget().merge(day, cost, BigDecimal::add);
+        }
+
+        summariesByItineraryId.values().forEach(summary ->
+                summary.setCalculatedBudget(summary.getDailyBudget().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    // ================= COST RULES =================
+
+    private BigDecimal resolveCost(ItineraryItem item, TravellerNationality nationality) {
+        Destination destination = item.getDestination();
+        return resolveCost(item.getActivityType(), item.getEstimatedCost(),
+                destination != null ? destination.getEntranceFeeLocal() : null,
+                destination != null ? destination.getEntranceFeeForeign() : null,
+                nationality);
+    }
+
+    @Override
+    public BigDecimal costOf(String activityType, BigDecimal estimatedCost, BigDecimal feeLocal, BigDecimal feeForeign,
+                             TravellerNationality nationality) {
+        return resolveCost(activityType, estimatedCost, feeLocal, feeForeign, nationality);
+    }
+
+    // An explicit item cost wins; otherwise the entrance fee for the traveller's tier plus the activity default
+    private BigDecimal resolveCost(String activityType, BigDecimal estimatedCost,
+                                   BigDecimal feeLocal, BigDecimal feeForeign,
+                                   TravellerNationality nationality) {
+        if (estimatedCost != null) return estimatedCost;
+
+        BigDecimal fee = nationality == TravellerNationality.FOREIGN ? feeForeign : feeLocal;
+        return orZero(fee).add(activityDefault(activityType));
+    }
+
+    private BigDecimal activityDefault(String activityType) {
+        if (activityType == null) return orZero(budgetProperties.getFallbackDefault());
+        BigDecimal value = budgetProperties.getActivityDefaults().get(activityType.toUpperCase(Locale.ROOT));
+        return value != null ? value : orZero(budgetProperties.getFallbackDefault());
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,108 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.service.DestinationAttributeIndex;
+import com.yatrika.itinerary.dto.response.NearbyItineraryResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse index destination id -> public trips and admin templates that include it. Radius
+ * queries resolve the nearby destinations through DestinationAttributeIndex's grid and union
+ * their posting sets, so no join over itinerary_items is needed. Loaded and kept current by
+ * {@link SharedItineraryIndex}.
+ */
+@Component
+public class ItineraryDestinationIndex extends SharedItineraryIndex<ItineraryDestinationIndex.Entry> {
+
+    record Entry(String title, String theme, boolean template, Set<Long> destinationIds) {
+    }
+
+    private final DestinationAttributeIndex destinationIndex;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<Long>> itinerariesByDestination = new HashMap<>();
+
+    public ItineraryDestinationIndex(ItineraryRepository itineraryRepository,
+                                     DestinationAttributeIndex destinationIndex,
+                                     PlatformTransactionManager transactionManager) {
+        super(itineraryRepository, transactionManager, "destination");
+        this.destinationIndex = destinationIndex;
+    }
+
+    // ================= QUERIES =================
+
+    public Page<NearbyItineraryResponse> passingNear(double lat, double lon, double radiusKm, Pageable pageable) {
+        ensureLoaded();
+        DestinationAttributeIndex.Snapshot destinations = destinationIndex.get();
+        int[] nearby = destinations.within(lat, lon, radiusKm);
+
+        Map<Long, NearbyItineraryResponse> hits = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int position : nearby) {
+                Set<Long> itineraryIds = itinerariesByDestination.get(destinations.id(position));
+                if (itineraryIds == null) continue;
+                double km = DestinationAttributeIndex.Snapshot.distanceKm(
+                        lat, lon, destinations.latitude(position), destinations.longitude(position));
+                for (Long itineraryId : itineraryIds) {
+                    NearbyItineraryResponse hit = hits.get(itineraryId);
+                    if (hit == null) {
+                        Entry entry = entries.get(itineraryId);
+                        hits.put(itineraryId, new NearbyItineraryResponse(itineraryId, entry.title(), entry.theme(),
+                                entry.template(), km, 1));
+                    } else {
+                        hit.setDistanceKm(Math.min(hit.getDistanceKm(), km));
+                        hit.setMatchedStops(hit.getMatchedStops() + 1);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<NearbyItineraryResponse> ranked = hits.values().stream()
+                .peek(hit -> hit.setDistanceKm(Math.round(hit.getDistanceKm() * 10) / 10.0))
+                .sorted(Comparator.comparingDouble(NearbyItineraryResponse::getDistanceKm)
+                        .thenComparing(NearbyItineraryResponse::getMatchedStops, Comparator.reverseOrder())
+                        .thenComparing(NearbyItineraryResponse::getId))
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size());
+    }
+
+    // ================= INCREMENTAL MAINTENANCE =================
+
+    @Override
+    Entry toEntry(SharedTrip trip) {
+        return new Entry(trip.title(), trip.theme(), trip.template(), trip.destinations().keySet());
+    }
+
+    @Override
+    void put(Long id, Entry entry) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            for (Long destinationId : previous.destinationIds()) {
+                Set<Long> postings = itinerariesByDestination.get(destinationId);
+                if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                    itinerariesByDestination.remove(destinationId);
+                }
+            }
+        }
+        if (entry == null) return;
+        entries.put(id, entry);
+        for (Long destinationId : entry.destinationIds()) {
+            itinerariesByDestination.computeIfAbsent(destinationId, k -> new HashSet<>()).add(id);
+        }
+    }
+}
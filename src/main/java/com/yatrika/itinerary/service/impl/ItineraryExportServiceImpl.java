@@ -0,0 +1,282 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.ItineraryExportService;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItineraryExportServiceImpl implements ItineraryExportService {
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final Comparator<ItineraryItem> BY_SCHEDULE = Comparator
+            .comparing(ItineraryItem::getDayNumber, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ItineraryItem::getOrderInDay, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ItineraryRepository itineraryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // ================= SINGLE TRIP =================
+
+    @Override
+    public StreamingResponseBody exportIcs(Long itineraryId, Long userId) {
+        Itinerary itinerary = loadVisible(itineraryId, userId);
+        return out -> {
+            Writer writer = writer(out);
+            writeIcs(itinerary, writer);
+            writer.flush();
+        };
+    }
+
+    @Override
+    public StreamingResponseBody exportGpx(Long itineraryId, Long userId) {
+        Itinerary itinerary = loadVisible(itineraryId, userId);
+        return out -> writeGpx(itinerary, out);
+    }
+
+    // ================= BULK =================
+
+    @Override
+    public StreamingResponseBody exportAllAsZip(Long userId) {
+        List<Long> ids = itineraryRepository.findIdsByUserId(userId);
+        TransactionTemplate perTrip = new TransactionTemplate(transactionManager);
+        perTrip.setReadOnly(true);
+
+        return out -> {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            Writer writer = writer(zip);
+            for (Long id : ids) {
+                // Each trip gets its own short transaction, so its entities are released before the next one
+                perTrip.executeWithoutResult(status -> itineraryRepository.findByIdWithDetails(id)
+                        .ifPresent(itinerary -> writeZipEntries(itinerary, zip, writer)));
+            }
+            zip.finish();
+        };
+    }
+
+    private void writeZipEntries(Itinerary itinerary, ZipOutputStream zip, Writer writer) {
+        String baseName = itinerary.getId() + "-" + slug(itinerary.getTitle());
+        try {
+            zip.putNextEntry(new ZipEntry(baseName + ".ics"));
+            writeIcs(itinerary, writer);
+            writer.flush();
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry(baseName + ".gpx"));
+            writeGpx(itinerary, zip);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new AppException("Failed to export itinerary " + itinerary.getId(), e);
+        }
+    }
+
+    // ================= ICS (RFC 5545) =================
+
+    private void writeIcs(Itinerary itinerary, Writer out) throws IOException {
+        LocalDate firstDay = itinerary.getStartDate() != null ? itinerary.getStartDate() : LocalDate.now();
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_DATE_TIME) + "Z";
+
+        icsLine(out, "BEGIN:VCALENDAR");
+        icsLine(out, "VERSION:2.0");
+        icsLine(out, "PRODID:-//Yatrika//Itinerary Export//EN");
+        icsLine(out, "CALSCALE:GREGORIAN");
+        icsLine(out, "X-WR-CALNAME:" + icsText(itinerary.getTitle()));
+
+        for (ItineraryItem item : itinerary.getItems().stream().sorted(BY_SCHEDULE).toList()) {
+            LocalDate day = firstDay.plusDays(item.getDayNumber() != null ? item.getDayNumber() - 1 : 0);
+            Destination destination = item.getDestination();
+
+            icsLine(out, "BEGIN:VEVENT");
+            icsLine(out, "UID:itinerary-" + itinerary.getId() + "-item-" + item.getId() + "@yatrika");
+            icsLine(out, "DTSTAMP:" + stamp);
+            if (item.getStartTime() != null) {
+                icsLine(out, "DTSTART:" + day.atTime(item.getStartTime()).format(ICS_DATE_TIME));
+                if (item.getEndTime() != null) {
+                    // An end at or before the start runs past midnight (22:00-01:00); DTEND must not precede DTSTART
+                    LocalDate endDay = item.getEndTime().isAfter(item.getStartTime()) ? day : day.plusDays(1);
+                    icsLine(out, "DTEND:" + endDay.atTime(item.getEndTime()).format(ICS_DATE_TIME));
+                }
+            } else {
+                // No time planned: an all-day entry on that trip day
+                icsLine(out, "DTSTART;VALUE=DATE:" + day.format(ICS_DATE));
+                icsLine(out, "DTEND;VALUE=DATE:" + day.plusDays(1).format(ICS_DATE));
+            }
+            icsLine(out, "SUMMARY:" + icsText(displayTitle(item)));
+            if (item.getNotes() != null) {
+                icsLine(out, "DESCRIPTION:" + icsText(item.getNotes()));
+            }
+            if (destination != null) {
+                icsLine(out, "LOCATION:" + icsText(destination.getName()));
+                if (destination.getLatitude() != null && destination.getLongitude() != null) {
+                    icsLine(out, "GEO:" + destination.getLatitude().toPlainString()
+                            + ";" + destination.getLongitude().toPlainString());
+                }
+            }
+            icsLine(out, "END:VEVENT");
+        }
+
+        icsLine(out, "END:VCALENDAR");
+    }
+
+    // Content lines end in CRLF and are folded at 75 octets of UTF-8 (RFC 5545 3.1); the space that
+    // starts a continuation line counts, and a fold never splits a code point
+    private void icsLine(Writer out, String line) throws IOException {
+        int start = 0;
+        int octets = 0;
+        int limit = 75;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (octets + size > limit) {
+                out.write(line, start, i - start);
+                out.write("\r\n ");
+                start = i;
+                octets = 0;
+                limit = 74;
+            }
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write(line, start, line.length() - start);
+        out.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    private String icsText(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    // ================= GPX 1.1 =================
+
+    private void writeGpx(Itinerary itinerary, OutputStream out) throws IOException {
+        List<ItineraryItem> stops = itinerary.getItems().stream()
+                .filter(item -> item.getDestination() != null
+                        && item.getDestination().getLatitude() != null
+                        && item.getDestination().getLongitude() != null)
+                .sorted(BY_SCHEDULE)
+                .toList();
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("gpx");
+            xml.writeDefaultNamespace("http://www.topografix.com/GPX/1/1");
+            xml.writeAttribute("version", "1.1");
+            xml.writeAttribute("creator", "Yatrika");
+
+            xml.writeStartElement("metadata");
+            textElement(xml, "name", itinerary.getTitle());
+            textElement(xml, "desc", itinerary.getDescription());
+            xml.writeEndElement();
+
+            for (ItineraryItem item : stops) {
+                gpxPoint(xml, "wpt", item);
+            }
+
+            // The planned order as a route, so GPS apps can navigate stop to stop
+            xml.writeStartElement("rte");
+            textElement(xml, "name", itinerary.getTitle());
+            for (ItineraryItem item : stops) {
+                gpxPoint(xml, "rtept", item);
+            }
+            xml.writeEndElement();
+
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close(); // does not close the underlying stream
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write GPX for itinerary " + itinerary.getId(), e);
+        }
+    }
+
+    private void gpxPoint(XMLStreamWriter xml, String element, ItineraryItem item) throws XMLStreamException {
+        Destination destination = item.getDestination();
+        xml.writeStartElement(element);
+        xml.writeAttribute("lat", destination.getLatitude().toPlainString());
+        xml.writeAttribute("lon", destination.getLongitude().toPlainString());
+        textElement(xml, "name", displayTitle(item));
+        textElement(xml, "desc", "Day " + item.getDayNumber() + (item.getNotes() != null ? " - " + item.getNotes() : ""));
+        textElement(xml, "type", item.getActivityType());
+        xml.writeEndElement();
+    }
+
+    private void textElement(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        if (value == null) return;
+        xml.writeStartElement(name);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    // ================= PRIVATE HELPERS =================
+
+    // Owners can export anything of theirs; others only public trips and admin templates
+    private Itinerary loadVisible(Long itineraryId, Long userId) {
+        Itinerary itinerary = itineraryRepository.findByIdWithDetails(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+        boolean owner = itinerary.getUserId() != null && itinerary.getUserId().equals(userId);
+        boolean shared = Boolean.TRUE.equals(itinerary.getIsPublic())
+                || itinerary.getStatus() == ItineraryStatus.TEMPLATE;
+        if (!owner && !shared) {
+            throw new ResourceNotFoundException("Itinerary not found");
+        }
+        return itinerary;
+    }
+
+    private String displayTitle(ItineraryItem item) {
+        if (item.getTitle() != null && !item.getTitle().isBlank()) return item.getTitle();
+        return item.getDestination() != null ? item.getDestination().getName() : "Activity";
+    }
+
+    private Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private String slug(String title) {
+        if (title == null) return "trip";
+        String slug = title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        if (slug.length() > 50) slug = slug.substring(0, 50);
+        return slug.isEmpty() ? "trip" : slug;
+    }
+}
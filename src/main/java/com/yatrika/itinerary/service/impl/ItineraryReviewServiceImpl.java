@@ -22,6 +22,7 @@ public class ItineraryReviewServiceImpl implements ItineraryReviewService { // C
     private final ItineraryRepository itineraryRepository;
     private final ItineraryReviewRepository reviewRepository;
     private final ItineraryReviewMapper reviewMapper; // Ensure you have a ReviewMapper
+    private final AdminTemplateSnapshotCache adminTemplateCache;
 
     @Override
     @Transactional
@@ -40,16 +41,12 @@ public class ItineraryReviewServiceImpl implements ItineraryReviewService { // C
 
         reviewRepository.save(review);
 
-        // Call the internal helper
-        updateItineraryRating(itinerary);
+        // Single atomic UPDATE on the itinerary row instead of re-averaging every review
+        itineraryRepository.addRating(itinerary.getId(), review.getRating());
+        if (Boolean.TRUE.equals(itinerary.getIsAdminCreated())) {
+            adminTemplateCache.invalidateAfterCommit(); // Tab 2 payload carries the rating
+        }
 
         return reviewMapper.toResponse(review);
     }
-
-    // This stays here as a private helper
-    private void updateItineraryRating(Itinerary itinerary) {
-        Double avg = reviewRepository.calculateAverageRating(itinerary.getId());
-        itinerary.setAverageRating(avg != null ? avg : 0.0);
-        itineraryRepository.save(itinerary);
-    }
 }
\ No newline at end of file
@@ -1,28 +1,47 @@
 package com.yatrika.itinerary.service.impl;
 
 import com.yatrika.destination.repository.DestinationRepository;
+import com.yatrika.destination.service.DestinationAttributeIndex;
 import com.yatrika.itinerary.domain.Itinerary;
 import com.yatrika.itinerary.domain.ItineraryItem;
 import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.domain.TravellerNationality;
 import com.yatrika.itinerary.dto.request.ItineraryFilterRequest;
 import com.yatrika.itinerary.dto.request.ItineraryItemRequest;
 import com.yatrika.itinerary.dto.request.ItineraryRequest;
+import com.yatrika.itinerary.dto.response.AdminTemplateSnapshot;
 import com.yatrika.itinerary.dto.response.ItineraryResponse;
+import com.yatrika.itinerary.dto.response.ItinerarySummary;
+import com.yatrika.itinerary.dto.response.NearbyItineraryResponse;
+import com.yatrika.itinerary.dto.response.SimilarItineraryResponse;
 import com.yatrika.itinerary.mapper.ItineraryMapper;
 import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.ItineraryBudgetService;
 import com.yatrika.itinerary.service.ItineraryService;
+import com.yatrika.itinerary.service.ScheduleFeasibilityService;
+import com.yatrika.shared.exception.AppException;
 import com.yatrika.shared.exception.ResourceNotFoundException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -32,14 +51,24 @@ public class ItineraryServiceImpl implements ItineraryService {
     private final ItineraryRepository itineraryRepository;
     private final ItineraryMapper itineraryMapper;
     private final DestinationRepository destinationRepository;
+    private final ItineraryBudgetService budgetService;
+    private final AdminTemplateSnapshotCache adminTemplateCache;
+    private final ScheduleFeasibilityService feasibilityService;
+    private final TravelTimeEstimator travelTime;
+    private final ItinerarySimilarityIndex similarityIndex;
+    private final ItineraryDestinationIndex itineraryDestinationIndex;
+    private final DestinationAttributeIndex destinationAttributeIndex;
+
+    @Value("${app.auto-split.restarts:24}")
+    private int autoSplitRestarts;
 
     // ================= 1. DISCOVERY & EXPLORATION =================
 
+    // Served from memory; no connection is taken unless the cache reloads (in its own transaction)
     @Override
-    @Transactional(readOnly = true)
-    public List<ItineraryResponse> getAdminTemplates() {
-        return itineraryRepository.findByStatusAndIsAdminCreatedTrue(ItineraryStatus.TEMPLATE)
-                .stream().map(itineraryMapper::toResponse).collect(Collectors.toList());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AdminTemplateSnapshot getAdminTemplatesSnapshot() {
+        return adminTemplateCache.get();
     }
 
     @Override
@@ -67,6 +96,41 @@ public class ItineraryServiceImpl implements ItineraryService {
         return itineraryRepository.findAll(spec, pageable).map(itineraryMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<SimilarItineraryResponse> getSimilarItineraries(Long itineraryId, int limit) {
+        List<SimilarItineraryResponse> similar = similarityIndex.similarTo(itineraryId, limit);
+        if (similar == null) {
+            throw new ResourceNotFoundException("Itinerary not found or not shared");
+        }
+        return similar;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<NearbyItineraryResponse> getItinerariesNear(Long destinationId, Double latitude, Double longitude,
+                                                            double radiusKm, Pageable pageable) {
+        double lat, lon;
+        if (destinationId != null) {
+            DestinationAttributeIndex.Snapshot destinations = destinationAttributeIndex.get();
+            Integer position = destinations.positionOf(destinationId);
+            if (position == null || Double.isNaN(destinations.latitude(position))) {
+                throw new ResourceNotFoundException("Destination not found or has no coordinates");
+            }
+            lat = destinations.latitude(position);
+            lon = destinations.longitude(position);
+        } else if (latitude != null && longitude != null) {
+            lat = latitude;
+            lon = longitude;
+        } else {
+            throw new AppException("Either destinationId or latitude/longitude is required");
+        }
+        if (radiusKm < 0) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        return itineraryDestinationIndex.passingNear(lat, lon, radiusKm, pageable);
+    }
+
     // ================= 2. LIFECYCLE (CREATE & COPY) =================
 
     @Override
@@ -76,6 +140,8 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .description(request.getDescription())
                 .userId(userId)
                 .theme(request.getTheme())
+                .travellerNationality(request.getTravellerNationality() != null
+                        ? request.getTravellerNationality() : TravellerNationality.LOCAL)
                 .status(ItineraryStatus.DRAFT)
                 .isPublic(false)
                 .isAdminCreated(false)
@@ -99,6 +165,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .totalDays(original.getTotalDays())
                 .theme(original.getTheme())
                 .estimatedBudget(original.getEstimatedBudget())
+                .travellerNationality(original.getTravellerNationality())
                 .items(new ArrayList<>())
                 .build();
 
@@ -112,10 +179,12 @@ public class ItineraryServiceImpl implements ItineraryService {
                     .title(item.getTitle())
                     .notes(item.getNotes())
                     .activityType(item.getActivityType())
+                    .estimatedCost(item.getEstimatedCost())
                     .isVisited(false)
                     .build();
             clone.addItem(newItem);
         });
+        budgetService.recalculate(clone);
 
         original.setCopyCount(original.getCopyCount() + 1);
         return itineraryMapper.toResponse(itineraryRepository.save(clone));
@@ -126,8 +195,15 @@ public class ItineraryServiceImpl implements ItineraryService {
     @Override
     @Transactional(readOnly = true)
     public Page<ItineraryResponse> getMyItineraries(Long userId, Pageable pageable) {
-        return itineraryRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(itineraryMapper::toResponse);
+        Page<ItineraryResponse> page = itineraryRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
+                .map(itineraryMapper::toListResponse);
+
+        // Summaries for the whole page come from a single query instead of one item walk per trip;
+        // the items themselves are still returned (batch-fetched by default_batch_fetch_size)
+        Map<Long, ItinerarySummary> summaries = new LinkedHashMap<>();
+        page.forEach(response -> summaries.put(response.getId(), response.getSummary()));
+        budgetService.applySummaries(summaries);
+        return page;
     }
 
     @Override
@@ -136,9 +212,20 @@ public class ItineraryServiceImpl implements ItineraryService {
         itinerary.setTitle(request.getTitle());
         itinerary.setDescription(request.getDescription());
         itinerary.setTheme(request.getTheme());
+        boolean datesMoved = !Objects.equals(itinerary.getStartDate(), request.getStartDate());
         itinerary.setStartDate(request.getStartDate());
         itinerary.setEndDate(request.getEndDate());
         itinerary.setEstimatedBudget(request.getEstimatedBudget());
+        if (request.getTravellerNationality() != null
+                && request.getTravellerNationality() != itinerary.getTravellerNationality()) {
+            itinerary.setTravellerNationality(request.getTravellerNationality());
+            budgetService.recalculate(itinerary); // entrance fees switch tier
+        }
+        if (datesMoved) {
+            feasibilityService.recheckAllDays(itinerary); // weekdays, and so opening hours, shift
+        }
+        reindexShared(itinerary);
+        invalidateIfTemplate(itinerary);
         return itineraryMapper.toResponse(itineraryRepository.save(itinerary));
     }
 
@@ -158,11 +245,19 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .startTime(request.getStartTime())
                 .endTime(request.getEndTime())
                 .activityType(request.getActivityType())
+                .estimatedCost(request.getEstimatedCost())
                 .isVisited(false)
                 .build();
 
+        budgetService.onItemAdded(itinerary, newItem);
         itinerary.addItem(newItem);
-        return itineraryMapper.toResponse(itineraryRepository.save(itinerary));
+
+        // Re-checked after save so the day is evaluated on the persisted items
+        Itinerary saved = itineraryRepository.save(itinerary);
+        feasibilityService.recheckDays(saved, Collections.singleton(request.getDayNumber()));
+        reindexShared(saved);
+        invalidateIfTemplate(saved);
+        return itineraryMapper.toResponse(saved);
     }
 
     @Override
@@ -174,6 +269,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .findFirst()
                 .orElseThrow(() -> new EntityNotFoundException("Item not found in this trip"));
 
+        Integer previousDay = item.getDayNumber();
         item.setTitle(request.getTitle());
         item.setNotes(request.getNotes());
         item.setDayNumber(request.getDayNumber());
@@ -181,6 +277,11 @@ public class ItineraryServiceImpl implements ItineraryService {
         item.setActivityType(request.getActivityType());
         item.setStartTime(request.getStartTime());
         item.setEndTime(request.getEndTime());
+        item.setEstimatedCost(request.getEstimatedCost());
+        budgetService.onItemChanged(itinerary, item);
+        feasibilityService.recheckDays(itinerary, Arrays.asList(previousDay, item.getDayNumber()));
+        reindexShared(itinerary);
+        invalidateIfTemplate(itinerary);
 
         return itineraryMapper.toResponse(itineraryRepository.save(itinerary));
     }
@@ -192,28 +293,100 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .filter(i -> i.getId().equals(itemId))
                 .findFirst()
                 .ifPresent(item -> item.setIsVisited(visited));
+        invalidateIfTemplate(itinerary); // the summary counts visited items
     }
 
     @Override
     public void reorderItems(Long itineraryId, List<Long> itemIdsInOrder, Long userId) {
         Itinerary itinerary = getOwnedItinerary(itineraryId, userId);
+        Set<Integer> touchedDays = new HashSet<>();
         for (int i = 0; i < itemIdsInOrder.size(); i++) {
             Long currentId = itemIdsInOrder.get(i);
             int newOrder = i + 1;
             itinerary.getItems().stream()
                     .filter(item -> item.getId().equals(currentId))
                     .findFirst()
-                    .ifPresent(item -> item.setOrderInDay(newOrder));
+                    .ifPresent(item -> {
+                        item.setOrderInDay(newOrder);
+                        touchedDays.add(item.getDayNumber());
+                    });
         }
+        feasibilityService.recheckDays(itinerary, touchedDays);
+        invalidateIfTemplate(itinerary);
     }
 
     @Override
     public void removeItem(Long itineraryId, Long itemId, Long userId) {
         Itinerary itinerary = getOwnedItinerary(itineraryId, userId);
-        itinerary.getItems().removeIf(item -> item.getId().equals(itemId));
+        itinerary.getItems().stream()
+                .filter(item -> item.getId().equals(itemId))
+                .findFirst()
+                .ifPresent(item -> {
+                    budgetService.onItemRemoved(itinerary, item);
+                    itinerary.getItems().remove(item);
+                    feasibilityService.recheckDays(itinerary, Collections.singleton(item.getDayNumber()));
+                    reindexShared(itinerary);
+                    invalidateIfTemplate(itinerary);
+                });
         itineraryRepository.save(itinerary);
     }
 
+    @Override
+    public ItineraryResponse autoSplitIntoDays(Long itineraryId, int days, Long userId) {
+        Itinerary itinerary = getOwnedItinerary(itineraryId, userId);
+        if (itinerary.getStatus() != ItineraryStatus.DRAFT) {
+            throw new AppException("Only draft itineraries can be auto-split into days");
+        }
+        if (days < 1) {
+            throw new AppException("Number of days must be at least 1");
+        }
+
+        List<ItineraryItem> located = new ArrayList<>();
+        List<ItineraryItem> unlocated = new ArrayList<>();
+        for (ItineraryItem item : itinerary.getItems()) {
+            boolean hasPoint = item.getDestination() != null
+                    && item.getDestination().getLatitude() != null && item.getDestination().getLongitude() != null;
+            (hasPoint ? located : unlocated).add(item);
+        }
+
+        List<List<ItineraryItem>> plannedDays = new ArrayList<>();
+        for (int d = 0; d < days; d++) plannedDays.add(new ArrayList<>());
+
+        if (!located.isEmpty()) {
+            int n = located.size();
+            double[] lat = new double[n], lon = new double[n], weight = new double[n];
+            for (int i = 0; i < n; i++) {
+                ItineraryItem item = located.get(i);
+                lat[i] = item.getDestination().getLatitude().doubleValue();
+                lon[i] = item.getDestination().getLongitude().doubleValue();
+                Integer hours = item.getDestination().getAverageDurationHours();
+                weight[i] = hours != null && hours > 0 ? hours : 1;
+            }
+            DayClusterer.Plan plan = new DayClusterer(weight, lat, lon, Math.min(days, n), travelTime::km)
+                    .solve(autoSplitRestarts, itinerary.getId());
+            for (int d = 0; d < plan.days().size(); d++) {
+                for (int i : plan.days().get(d)) plannedDays.get(d).add(located.get(i));
+            }
+        }
+
+        // Items without coordinates go to the end of the currently shortest days
+        for (ItineraryItem item : unlocated) {
+            plannedDays.stream().min(Comparator.comparingInt(List::size)).orElseThrow().add(item);
+        }
+
+        for (int d = 0; d < days; d++) {
+            List<ItineraryItem> dayItems = plannedDays.get(d);
+            for (int o = 0; o < dayItems.size(); o++) {
+                dayItems.get(o).setDayNumber(d + 1);
+                dayItems.get(o).setOrderInDay(o + 1);
+            }
+        }
+        itinerary.setTotalDays(days);
+        feasibilityService.recheckAllDays(itinerary);
+        invalidateIfTemplate(itinerary);
+        return itineraryMapper.toResponse(itineraryRepository.save(itinerary));
+    }
+
     // ================= 5. FINALIZING & SHARING =================
 
     @Override
@@ -238,6 +411,7 @@ public class ItineraryServiceImpl implements ItineraryService {
         }
 
         trip.setIsPublic(true);
+        reindexShared(trip);
         return itineraryMapper.toResponse(itineraryRepository.save(trip));
     }
 
@@ -255,6 +429,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .theme(request.getTheme())
                 .totalDays(request.getTotalDays())
                 .build();
+        adminTemplateCache.invalidateAfterCommit();
         return itineraryMapper.toResponse(itineraryRepository.save(template));
     }
 
@@ -271,14 +446,41 @@ public class ItineraryServiceImpl implements ItineraryService {
                 .orderInDay(request.getOrderInDay())
                 .title(request.getTitle())
                 .activityType(request.getActivityType())
+                .estimatedCost(request.getEstimatedCost())
                 .build();
 
+        budgetService.onItemAdded(template, newItem);
         template.addItem(newItem);
-        return itineraryMapper.toResponse(itineraryRepository.save(template));
+        adminTemplateCache.invalidateAfterCommit();
+
+        Itinerary saved = itineraryRepository.save(template);
+        feasibilityService.recheckDays(saved, Collections.singleton(request.getDayNumber()));
+        reindexShared(saved);
+        return itineraryMapper.toResponse(saved);
+    }
+
+    // Joins the caller's transaction so the snapshot is dropped only once the destination write commits
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onDestinationChanged() {
+        adminTemplateCache.invalidateAfterCommit();
     }
 
     // ================= PRIVATE HELPERS & SPECS =================
 
+    // Keeps the in-memory indexes over public trips / templates in step with this itinerary
+    private void reindexShared(Itinerary itinerary) {
+        similarityIndex.refreshAfterCommit(itinerary);
+        itineraryDestinationIndex.refreshAfterCommit(itinerary);
+    }
+
+    // Templates are itineraries too, so every edit path drops the pre-encoded Tab 2 list
+    private void invalidateIfTemplate(Itinerary itinerary) {
+        if (itinerary.getStatus() == ItineraryStatus.TEMPLATE) {
+            adminTemplateCache.invalidateAfterCommit();
+        }
+    }
+
     private Itinerary getOwnedItinerary(Long id, Long userId) {
         Itinerary itinerary = itineraryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
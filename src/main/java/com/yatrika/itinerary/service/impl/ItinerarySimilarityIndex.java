@@ -0,0 +1,156 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.itinerary.dto.response.SimilarItineraryResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MinHash/LSH index over public trips and admin templates. Each trip is reduced to the set of
+ * its destination ids and destination tags; a 128-slot MinHash signature is split into 32 bands
+ * of 4 rows, and trips sharing any band bucket become candidates, ranked by exact Jaccard.
+ * Loaded and kept current by {@link SharedItineraryIndex}.
+ */
+@Component
+public class ItinerarySimilarityIndex extends SharedItineraryIndex<ItinerarySimilarityIndex.Entry> {
+
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int SLOTS = BANDS * ROWS;
+    private static final long[] SEEDS = new long[SLOTS];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SLOTS; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    record Entry(String title, String theme, long[] features, int[] signature) {
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Set<Long>>[] buckets = new HashMap[BANDS];
+
+    public ItinerarySimilarityIndex(ItineraryRepository itineraryRepository, PlatformTransactionManager transactionManager) {
+        super(itineraryRepository, transactionManager, "similarity");
+        for (int b = 0; b < BANDS; b++) buckets[b] = new HashMap<>();
+    }
+
+    // ================= QUERIES =================
+
+    // Null when the trip is not indexed (not public / template, or no destinations yet)
+    public List<SimilarItineraryResponse> similarTo(Long itineraryId, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Entry self = entries.get(itineraryId);
+            if (self == null) return null;
+
+            Set<Long> candidates = new HashSet<>();
+            for (int b = 0; b < BANDS; b++) {
+                Set<Long> bucket = buckets[b].get(bandKey(self.signature(), b));
+                if (bucket != null) candidates.addAll(bucket);
+            }
+            candidates.remove(itineraryId);
+
+            List<SimilarItineraryResponse> ranked = new ArrayList<>(candidates.size());
+            for (Long id : candidates) {
+                Entry other = entries.get(id);
+                ranked.add(new SimilarItineraryResponse(id, other.title(), other.theme(),
+                        jaccard(self.features(), other.features())));
+            }
+            ranked.sort(Comparator.comparingDouble(SimilarItineraryResponse::getSimilarity).reversed());
+            return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= INCREMENTAL MAINTENANCE =================
+
+    @Override
+    void put(Long id, Entry entry) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            for (int b = 0; b < BANDS; b++) {
+                Set<Long> bucket = buckets[b].get(bandKey(previous.signature(), b));
+                if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                    buckets[b].remove(bandKey(previous.signature(), b));
+                }
+            }
+        }
+        if (entry == null) return;
+        entries.put(id, entry);
+        for (int b = 0; b < BANDS; b++) {
+            buckets[b].computeIfAbsent(bandKey(entry.signature(), b), k -> new HashSet<>()).add(id);
+        }
+    }
+
+    // ================= MINHASH =================
+
+    private void addDestination(Set<Long> set, Long destinationId, String[] tags) {
+        set.add(mix(destinationId));
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    set.add(mix(~(long) tag.trim().toLowerCase(Locale.ROOT).hashCode()));
+                }
+            }
+        }
+    }
+
+    @Override
+    Entry toEntry(SharedTrip trip) {
+        Set<Long> featureSet = new HashSet<>();
+        trip.destinations().forEach((destinationId, tags) -> addDestination(featureSet, destinationId, tags));
+        if (featureSet.isEmpty()) return null;
+        long[] features = featureSet.stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] signature = new int[SLOTS];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long feature : features) {
+            for (int s = 0; s < SLOTS; s++) {
+                int h = (int) (mix(feature ^ SEEDS[s]) >>> 33);
+                if (h < signature[s]) signature[s] = h;
+            }
+        }
+        return new Entry(trip.title(), trip.theme(), features, signature);
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = 0; r < ROWS; r++) {
+            key = key * 0x100000001B3L + signature[band * ROWS + r];
+        }
+        return mix(key);
+    }
+
+    private static double jaccard(long[] a, long[] b) {
+        int i = 0, j = 0, shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) { shared++; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
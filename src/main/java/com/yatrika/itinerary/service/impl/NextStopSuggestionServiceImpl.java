@@ -0,0 +1,196 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.destination.service.DestinationAttributeIndex;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.dto.response.NextStopSuggestionResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.NextStopSuggestionService;
+import com.yatrika.shared.exception.ResourceNotFoundException;
+import com.yatrika.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static com.yatrika.destination.service.DestinationAttributeIndex.CLOSED;
+import static com.yatrika.destination.service.DestinationAttributeIndex.UNKNOWN;
+
+@Service
+@Transactional(readOnly = true)
+public class NextStopSuggestionServiceImpl implements NextStopSuggestionService {
+
+    private static final int DEFAULT_STAY_MINUTES = 60;
+    private static final double W_DETOUR = 0.35;
+    private static final double W_INTEREST = 0.25;
+    private static final double W_RATING = 0.25;
+    private static final double W_TIME = 0.15;
+
+    private final ItineraryRepository itineraryRepository;
+    private final UserRepository userRepository;
+    private final DestinationAttributeIndex destinationIndex;
+    private final TravelTimeEstimator travelTime;
+    private final double maxDetourKm;
+    private final int dayStart;
+    private final int dayEnd;
+
+    public NextStopSuggestionServiceImpl(ItineraryRepository itineraryRepository,
+                                         UserRepository userRepository,
+                                         DestinationAttributeIndex destinationIndex,
+                                         TravelTimeEstimator travelTime,
+                                         @Value("${app.suggestions.max-detour-km:40}") double maxDetourKm,
+                                         @Value("${app.suggestions.day-start:08:00}") LocalTime dayStart,
+                                         @Value("${app.suggestions.day-end:20:00}") LocalTime dayEnd) {
+        this.itineraryRepository = itineraryRepository;
+        this.userRepository = userRepository;
+        this.destinationIndex = destinationIndex;
+        this.travelTime = travelTime;
+        this.maxDetourKm = maxDetourKm;
+        this.dayStart = minutes(dayStart);
+        this.dayEnd = minutes(dayEnd);
+    }
+
+    @Override
+    public List<NextStopSuggestionResponse> suggest(Long itineraryId, Integer dayNumber, Integer position, int limit, Long userId) {
+        Itinerary itinerary = itineraryRepository.findByIdWithDetails(itineraryId)
+                .filter(it -> Objects.equals(it.getUserId(), userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+
+        List<ItineraryItem> day = itinerary.getItems().stream()
+                .filter(item -> Objects.equals(item.getDayNumber(), dayNumber))
+                .sorted(Comparator.comparing(ItineraryItem::getOrderInDay, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        int insertAt = position == null ? day.size() : Math.max(0, Math.min(position, day.size()));
+        ItineraryItem prev = insertAt > 0 ? day.get(insertAt - 1) : null;
+        ItineraryItem next = insertAt < day.size() ? day.get(insertAt) : null;
+
+        DestinationAttributeIndex.Snapshot index = destinationIndex.get();
+
+        // Anchors: where we come from / go to, and the time window between them
+        double prevLat = latitude(prev), prevLon = longitude(prev);
+        double nextLat = latitude(next), nextLon = longitude(next);
+        int leaveAt = prev == null ? dayStart : departureOf(prev, index);
+        int mustArriveBy = next != null && next.getStartTime() != null ? minutes(next.getStartTime()) : dayEnd;
+        double directKm = travelTime.km(prevLat, prevLon, nextLat, nextLon);
+        int weekday = itinerary.getStartDate() != null && dayNumber != null
+                ? itinerary.getStartDate().plusDays(dayNumber - 1L).getDayOfWeek().getValue() % 7
+                : -1;
+
+        Set<Long> planned = new HashSet<>();
+        itinerary.getItems().forEach(item -> {
+            if (item.getDestination() != null) planned.add(item.getDestination().getId());
+        });
+        List<String> interests = userRepository.findInterestsByUserId(userId);
+        int[] interestIds = index.tagIdsOf(interests);
+
+        // Bounded min-heap on score keeps only the best 'limit' candidates
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+        for (int i = 0; i < index.size(); i++) {
+            double lat = index.latitude(i), lon = index.longitude(i);
+            if (Double.isNaN(lat) || planned.contains(index.id(i))) continue;
+
+            double inKm = travelTime.km(prevLat, prevLon, lat, lon);
+            double outKm = travelTime.km(lat, lon, nextLat, nextLon);
+            double detourKm = Math.max(0, inKm + outKm - directKm);
+            if (detourKm > maxDetourKm) continue;
+
+            int arrival = leaveAt + travelTime.minutesForKm(inKm);
+            int stay = index.stayMinutes(i) != UNKNOWN ? index.stayMinutes(i) : DEFAULT_STAY_MINUTES;
+            if (weekday >= 0) {
+                int opens = index.opensAt(i, weekday);
+                int closes = index.closesAt(i, weekday);
+                // An early visit may still fall in the previous day's overnight hours
+                int previousTail = OpeningHours.overnightTail(index.opensAt(i, (weekday + 6) % 7),
+                        index.closesAt(i, (weekday + 6) % 7));
+                if (previousTail < 0 || arrival + stay > previousTail) {
+                    if (opens == CLOSED) continue;
+                    if (opens != UNKNOWN) {
+                        arrival = OpeningHours.earliestStart(opens, closes, arrival);
+                        if (!OpeningHours.covers(opens, closes, arrival, arrival + stay)) continue;
+                    }
+                }
+            }
+            int departure = arrival + stay;
+            int remaining = mustArriveBy - departure - travelTime.minutesForKm(outKm);
+            if (remaining < 0) continue;
+
+            double overlap = interestIds.length == 0 ? 0
+                    : (double) DestinationAttributeIndex.Snapshot.overlapCount(interestIds, index.tagIds(i)) / interestIds.length;
+            double score = W_DETOUR * (1 - detourKm / maxDetourKm)
+                    + W_INTEREST * overlap
+                    + W_RATING * index.rating(i) / 5.0
+                    + W_TIME * Math.min(1.0, remaining / 120.0);
+
+            if (best.size() < limit) {
+                best.add(new Candidate(i, score, detourKm, arrival, departure, remaining, overlap));
+            } else if (!best.isEmpty() && score > best.peek().score()) {
+                best.poll();
+                best.add(new Candidate(i, score, detourKm, arrival, departure, remaining, overlap));
+            }
+        }
+
+        List<NextStopSuggestionResponse> result = new ArrayList<>(best.size());
+        best.stream().sorted(Comparator.comparingDouble(Candidate::score).reversed())
+                .forEach(c -> result.add(toResponse(index, c)));
+        return result;
+    }
+
+    // ================= PRIVATE HELPERS =================
+
+    private record Candidate(int position, double score, double detourKm, int arrival, int departure,
+                             int remaining, double overlap) {
+    }
+
+    private NextStopSuggestionResponse toResponse(DestinationAttributeIndex.Snapshot index, Candidate c) {
+        int i = c.position();
+        return NextStopSuggestionResponse.builder()
+                .destinationId(index.id(i))
+                .name(index.name(i))
+                .latitude(index.latitude(i))
+                .longitude(index.longitude(i))
+                .averageRating(index.rating(i))
+                .detourKm(Math.round(c.detourKm() * 10) / 10.0)
+                .arrivalTime(time(c.arrival()))
+                .departureTime(time(c.departure()))
+                .remainingMinutes(c.remaining())
+                .interestOverlap(c.overlap())
+                .score(Math.round(c.score() * 1000) / 1000.0)
+                .build();
+    }
+
+    // When the previous stop ends: its endTime, else start + typical stay, else the start of the day
+    private int departureOf(ItineraryItem item, DestinationAttributeIndex.Snapshot index) {
+        if (item.getEndTime() != null) return minutes(item.getEndTime());
+        if (item.getStartTime() == null) return dayStart;
+        Integer position = item.getDestination() != null ? index.positionOf(item.getDestination().getId()) : null;
+        int stay = position != null && index.stayMinutes(position) != UNKNOWN ? index.stayMinutes(position) : DEFAULT_STAY_MINUTES;
+        return minutes(item.getStartTime()) + stay;
+    }
+
+    private double latitude(ItineraryItem item) {
+        Destination d = item != null ? item.getDestination() : null;
+        return d != null && d.getLatitude() != null ? d.getLatitude().doubleValue() : Double.NaN;
+    }
+
+    private double longitude(ItineraryItem item) {
+        Destination d = item != null ? item.getDestination() : null;
+        return d != null && d.getLongitude() != null ? d.getLongitude().doubleValue() : Double.NaN;
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime time(int minutes) {
+        return LocalTime.of(Math.min(minutes, 24 * 60 - 1) / 60, Math.min(minutes, 24 * 60 - 1) % 60);
+    }
+}
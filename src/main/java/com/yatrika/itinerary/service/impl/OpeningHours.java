@@ -0,0 +1,41 @@
+package com.yatrika.itinerary.service.impl;
+
+/**
+ * How a day's opening (minutes of day) is read when planning visits: the same opening and
+ * closing time means round the clock, closing before opening means the hours run on past
+ * midnight (18:00-02:00), and that overnight tail still covers the early hours of the next day.
+ * Negative values stand for "no hours" (unknown or closed) and never cover anything.
+ */
+final class OpeningHours {
+
+    static final int END_OF_DAY = 24 * 60;
+
+    private OpeningHours() {
+    }
+
+    static boolean roundTheClock(int open, int close) {
+        return open >= 0 && open == close;
+    }
+
+    /** Minutes past midnight an overnight opening (closing before it opens) runs on to, else -1. */
+    static int overnightTail(int open, int close) {
+        return open >= 0 && close >= 0 && close < open ? close : -1;
+    }
+
+    /** Latest same-day end for a visit under these hours: the closing time, or END_OF_DAY when they run past midnight. */
+    static int sameDayClose(int open, int close) {
+        return close > open ? close : END_OF_DAY;
+    }
+
+    /** Earliest start at or after arrival that the hours allow; waits for opening unless round the clock. */
+    static int earliestStart(int open, int close, int arrival) {
+        return roundTheClock(open, close) ? arrival : Math.max(arrival, open);
+    }
+
+    /** Whether a visit from start to end (same day, end capped at midnight) falls inside the hours. */
+    static boolean covers(int open, int close, int start, int end) {
+        if (open < 0 || close < 0) return false;
+        if (roundTheClock(open, close)) return true;
+        return start >= open && end <= sameDayClose(open, close);
+    }
+}
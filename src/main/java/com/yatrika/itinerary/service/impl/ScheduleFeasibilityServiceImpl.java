@@ -0,0 +1,267 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.destination.domain.OperatingHour;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.domain.ScheduleConflictType;
+import com.yatrika.itinerary.dto.response.DayFeasibilityResponse;
+import com.yatrika.itinerary.dto.response.FeasibilityReportResponse;
+import com.yatrika.itinerary.dto.response.ItemFeasibilityResponse;
+import com.yatrika.itinerary.dto.response.ScheduleConflictResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.ScheduleFeasibilityService;
+import com.yatrika.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ScheduleFeasibilityServiceImpl implements ScheduleFeasibilityService {
+
+    private static final int END_OF_DAY = OpeningHours.END_OF_DAY;
+    private static final Comparator<ItineraryItem> BY_START = Comparator
+            .comparing(ItineraryItem::getStartTime)
+            .thenComparing(ItineraryItem::getOrderInDay, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ItineraryRepository itineraryRepository;
+    private final TravelTimeEstimator travelTime;
+
+    // ================= FULL TRIP =================
+
+    @Override
+    @Transactional(readOnly = true)
+    public FeasibilityReportResponse checkTrip(Long itineraryId, Long userId) {
+        Itinerary itinerary = itineraryRepository.findByIdWithDetails(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+        boolean owner = itinerary.getUserId() != null && itinerary.getUserId().equals(userId);
+        boolean shared = Boolean.TRUE.equals(itinerary.getIsPublic())
+                || itinerary.getStatus() == ItineraryStatus.TEMPLATE;
+        if (!owner && !shared) {
+            throw new ResourceNotFoundException("Itinerary not found");
+        }
+        itineraryRepository.fetchDestinationHours(itineraryId);
+
+        FeasibilityReportResponse report = new FeasibilityReportResponse();
+        report.setItineraryId(itinerary.getId());
+        groupByDay(itinerary.getItems()).forEach((day, items) ->
+                report.getDays().add(checkDay(day, dateOf(itinerary, day), items)));
+
+        int conflicts = report.getDays().stream()
+                .flatMap(d -> d.getItems().stream())
+                .mapToInt(i -> i.getConflicts().size())
+                .sum();
+        report.setConflictCount(conflicts);
+        report.setFeasible(conflicts == 0);
+        return report;
+    }
+
+    // ================= INCREMENTAL =================
+
+    @Override
+    public void recheckDays(Itinerary itinerary, Collection<Integer> dayNumbers) {
+        Map<Integer, List<ItineraryItem>> byDay = groupByDay(itinerary.getItems());
+        for (Integer day : new HashSet<>(dayNumbers)) {
+            List<ItineraryItem> items = byDay.get(day == null ? 0 : day);
+            if (items != null) {
+                store(items, checkDay(day, dateOf(itinerary, day), items));
+            }
+        }
+    }
+
+    @Override
+    public void recheckAllDays(Itinerary itinerary) {
+        groupByDay(itinerary.getItems()).forEach((day, items) ->
+                store(items, checkDay(day, dateOf(itinerary, day), items)));
+    }
+
+    // Keeps slack and the conflict codes on the items so normal item responses carry them
+    private void store(List<ItineraryItem> items, DayFeasibilityResponse result) {
+        int timed = 0;
+        List<ItineraryItem> sorted = items.stream().filter(i -> i.getStartTime() != null).sorted(BY_START).toList();
+        for (ItineraryItem item : items) {
+            if (item.getStartTime() == null) {
+                item.setSlackMinutes(null);
+                item.setScheduleIssues(null);
+            }
+        }
+        for (ItemFeasibilityResponse checked : result.getItems()) {
+            ItineraryItem item = sorted.get(timed++);
+            item.setSlackMinutes(checked.getSlackMinutes());
+            item.setScheduleIssues(checked.getConflicts().isEmpty() ? null
+                    : checked.getConflicts().stream()
+                    .map(c -> c.getType().name())
+                    .distinct()
+                    .collect(Collectors.joining(",")));
+        }
+    }
+
+    // ================= DAY ENGINE =================
+
+    // One sweep over the day's timed items ordered by start: a running "latest end so far" catches
+    // overlaps, consecutive pairs give travel gaps, and each item's slack is what is left before the
+    // next stop (minus travel) or closing time.
+    private DayFeasibilityResponse checkDay(Integer dayNumber, LocalDate date, List<ItineraryItem> dayItems) {
+        DayFeasibilityResponse day = new DayFeasibilityResponse();
+        day.setDayNumber(dayNumber);
+        day.setDate(date);
+
+        List<ItineraryItem> timed = new ArrayList<>(dayItems.size());
+        for (ItineraryItem item : dayItems) {
+            if (item.getStartTime() != null) timed.add(item);
+            else day.getUnscheduledItemIds().add(item.getId());
+        }
+        timed.sort(BY_START);
+
+        int n = timed.size();
+        int[] start = new int[n];
+        int[] end = new int[n];
+        int[] opens = new int[n];
+        int[] closes = new int[n];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        ItemFeasibilityResponse[] results = new ItemFeasibilityResponse[n];
+
+        int weekday = date != null ? date.getDayOfWeek().getValue() % 7 : -1; // OperatingHour uses 0=Sunday
+        for (int i = 0; i < n; i++) {
+            ItineraryItem item = timed.get(i);
+            Destination destination = item.getDestination();
+            ItemFeasibilityResponse result = new ItemFeasibilityResponse();
+            result.setItemId(item.getId());
+            results[i] = result;
+
+            start[i] = minutes(item.getStartTime());
+            int minStay = destination != null && destination.getAverageDurationHours() != null
+                    ? destination.getAverageDurationHours() * 60 : 0;
+            if (item.getEndTime() == null) {
+                end[i] = Math.min(END_OF_DAY, start[i] + minStay);
+            } else {
+                end[i] = minutes(item.getEndTime());
+                if (end[i] < start[i]) {
+                    conflict(result, ScheduleConflictType.INVALID_TIME, null, "Ends before it starts");
+                    end[i] = start[i];
+                } else if (end[i] - start[i] < minStay) {
+                    conflict(result, ScheduleConflictType.TOO_SHORT, null,
+                            "Planned " + (end[i] - start[i]) + " min, usually takes " + minStay + " min");
+                }
+            }
+
+            lat[i] = destination != null && destination.getLatitude() != null ? destination.getLatitude().doubleValue() : Double.NaN;
+            lon[i] = destination != null && destination.getLongitude() != null ? destination.getLongitude().doubleValue() : Double.NaN;
+
+            opens[i] = -1;
+            closes[i] = -1;
+            OperatingHour hours = weekday >= 0 && destination != null ? hoursOn(destination, weekday) : null;
+            // A visit after midnight may fall in the previous day's overnight hours (Fri 18:00-02:00
+            // covers 01:00 on Saturday even when Saturday itself is closed)
+            int previousTail = weekday >= 0 && destination != null
+                    ? overnightClose(hoursOn(destination, (weekday + 6) % 7)) : -1;
+            if (previousTail >= 0 && end[i] <= previousTail) {
+                closes[i] = previousTail;
+            } else if (hours != null) {
+                if (Boolean.TRUE.equals(hours.getIsClosed())) {
+                    conflict(result, ScheduleConflictType.CLOSED, null, "Closed on " + hours.getDayName());
+                } else if (hours.getOpensAt() != null && hours.getClosesAt() != null) {
+                    int open = minutes(hours.getOpensAt());
+                    int close = minutes(hours.getClosesAt());
+                    boolean inside = OpeningHours.covers(open, close, start[i], end[i]);
+                    if (!OpeningHours.roundTheClock(open, close)) {
+                        opens[i] = open;
+                        // An overnight opening lets an evening visit run on to midnight
+                        if (close > open) closes[i] = close;
+                    }
+                    if (!inside) {
+                        conflict(result, ScheduleConflictType.OUTSIDE_HOURS, null,
+                                "Open " + hours.getOpensAt() + "-" + hours.getClosesAt());
+                    }
+                }
+            }
+        }
+
+        int latestEndIdx = -1;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                int travel = travelTime.minutes(lat[i - 1], lon[i - 1], lat[i], lon[i]);
+                results[i].setTravelMinutesFromPrevious(travel);
+
+                if (start[i] < end[latestEndIdx]) {
+                    ItineraryItem other = timed.get(latestEndIdx);
+                    conflict(results[i], ScheduleConflictType.OVERLAP, other.getId(), "Overlaps " + label(other));
+                    conflict(results[latestEndIdx], ScheduleConflictType.OVERLAP, timed.get(i).getId(),
+                            "Overlaps " + label(timed.get(i)));
+                } else if (start[i] - end[i - 1] < travel) {
+                    conflict(results[i], ScheduleConflictType.TRAVEL_TIME, timed.get(i - 1).getId(),
+                            "Needs ~" + travel + " min from " + label(timed.get(i - 1))
+                                    + ", only " + (start[i] - end[i - 1]) + " min planned");
+                }
+            }
+            if (latestEndIdx < 0 || end[i] > end[latestEndIdx]) latestEndIdx = i;
+
+            int limit = i + 1 < n
+                    ? start[i + 1] - travelTime.minutes(lat[i], lon[i], lat[i + 1], lon[i + 1])
+                    : END_OF_DAY;
+            if (closes[i] >= 0) limit = Math.min(limit, closes[i]);
+            results[i].setSlackMinutes(limit - end[i]);
+        }
+
+        boolean feasible = true;
+        for (ItemFeasibilityResponse result : results) {
+            day.getItems().add(result);
+            feasible &= result.getConflicts().isEmpty();
+        }
+        day.setFeasible(feasible);
+        return day;
+    }
+
+    // ================= PRIVATE HELPERS =================
+
+    private Map<Integer, List<ItineraryItem>> groupByDay(List<ItineraryItem> items) {
+        return items.stream().collect(Collectors.groupingBy(
+                item -> item.getDayNumber() != null ? item.getDayNumber() : 0, TreeMap::new, Collectors.toList()));
+    }
+
+    private LocalDate dateOf(Itinerary itinerary, Integer dayNumber) {
+        if (itinerary.getStartDate() == null || dayNumber == null) return null;
+        return itinerary.getStartDate().plusDays(dayNumber - 1L);
+    }
+
+    private OperatingHour hoursOn(Destination destination, int weekday) {
+        for (OperatingHour hour : destination.getOperatingHours()) {
+            if (hour.getDayOfWeek() != null && hour.getDayOfWeek() == weekday) return hour;
+        }
+        return null;
+    }
+
+    private static int overnightClose(OperatingHour hours) {
+        if (hours == null || Boolean.TRUE.equals(hours.getIsClosed())
+                || hours.getOpensAt() == null || hours.getClosesAt() == null) return -1;
+        return OpeningHours.overnightTail(minutes(hours.getOpensAt()), minutes(hours.getClosesAt()));
+    }
+
+    private void conflict(ItemFeasibilityResponse result, ScheduleConflictType type, Long otherItemId, String message) {
+        result.getConflicts().add(new ScheduleConflictResponse(type, otherItemId, message));
+    }
+
+    private String label(ItineraryItem item) {
+        if (item.getTitle() != null && !item.getTitle().isBlank()) return item.getTitle();
+        return item.getDestination() != null ? item.getDestination().getName() : "another activity";
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
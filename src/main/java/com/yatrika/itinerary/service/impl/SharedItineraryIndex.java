@@ -0,0 +1,138 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.shared.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Loading and upkeep shared by the in-memory indexes over public trips and admin templates.
+ * Loaded on first use from one query, then kept current one itinerary at a time after each
+ * commit. Subclasses turn a trip into their entry and keep their own structures in
+ * {@link #put}, which always runs under the write lock; queries call {@link #ensureLoaded()}
+ * and then read under the read lock.
+ */
+@Slf4j
+abstract class SharedItineraryIndex<E> {
+
+    /** A shared trip as the indexes see it: destination id -> its tags, in visiting order. */
+    record SharedTrip(String title, String theme, boolean template, Map<Long, String[]> destinations) {
+    }
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ItineraryRepository itineraryRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final String name;
+    private volatile boolean loaded;
+    // Refreshes committed while the initial load is reading; non-null only during a load, guarded by lock
+    private Map<Long, E> queued;
+    private final Object loadMonitor = new Object();
+
+    SharedItineraryIndex(ItineraryRepository itineraryRepository, PlatformTransactionManager transactionManager, String name) {
+        this.itineraryRepository = itineraryRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.name = name;
+    }
+
+    // Null leaves the trip out of the index
+    abstract E toEntry(SharedTrip trip);
+
+    // Replaces whatever is indexed under id; a null entry only removes it
+    abstract void put(Long id, E entry);
+
+    // ================= INCREMENTAL MAINTENANCE =================
+
+    // The entry is built now (the entity is at hand) and applied once the write commits
+    public void refreshAfterCommit(Itinerary itinerary) {
+        Long id = itinerary.getId();
+        boolean template = itinerary.getStatus() == ItineraryStatus.TEMPLATE;
+        E entry = null;
+        if (template || Boolean.TRUE.equals(itinerary.getIsPublic())) {
+            Map<Long, String[]> destinations = new LinkedHashMap<>();
+            for (ItineraryItem item : itinerary.getItems()) {
+                if (item.getDestination() != null) {
+                    destinations.put(item.getDestination().getId(), item.getDestination().getTags());
+                }
+            }
+            entry = toEntry(new SharedTrip(itinerary.getTitle(), itinerary.getTheme(), template, destinations));
+        }
+
+        E captured = entry;
+        AfterCommit.run(() -> apply(id, captured));
+    }
+
+    private void apply(Long id, E entry) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                put(id, entry);
+            } else if (queued != null) {
+                // The load may have read before this commit, so replay it on top once the load is in
+                queued.put(id, entry);
+            }
+            // Otherwise nothing is loaded yet and the first load will read the committed state
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The read runs outside the lock, so commits landing meanwhile queue up instead of waiting on it
+    void ensureLoaded() {
+        if (loaded) return;
+        synchronized (loadMonitor) {
+            if (loaded) return;
+            lock.writeLock().lock();
+            try {
+                queued = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<Long, E> built = new HashMap<>();
+            boolean read = false;
+            try {
+                // One row per (trip, destination); trips without destinations come back once with nulls
+                Map<Long, SharedTrip> trips = new LinkedHashMap<>();
+                readOnlyTx.executeWithoutResult(status -> {
+                    for (Object[] row : itineraryRepository.findSharedItineraryDestinationRows(ItineraryStatus.TEMPLATE)) {
+                        SharedTrip trip = trips.computeIfAbsent((Long) row[0], id -> new SharedTrip((String) row[1],
+                                (String) row[2], row[5] == ItineraryStatus.TEMPLATE, new LinkedHashMap<>()));
+                        if (row[3] != null) trip.destinations().put((Long) row[3], (String[]) row[4]);
+                    }
+                });
+                trips.forEach((id, trip) -> {
+                    E entry = toEntry(trip);
+                    if (entry != null) built.put(id, entry);
+                });
+                read = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (read) {
+                        built.forEach(this::put);
+                        queued.forEach(this::put);
+                        loaded = true;
+                    }
+                    queued = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("Itinerary {} index loaded with {} trips", name, built.size());
+        }
+    }
+}
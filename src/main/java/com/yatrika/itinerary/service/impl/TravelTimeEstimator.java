@@ -0,0 +1,40 @@
+package com.yatrika.itinerary.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Door-to-door travel estimate between two points: great-circle distance stretched by a
+ * road factor, at an average speed. Coordinates that are NaN count as "unknown" (0 km).
+ */
+@Component
+public class TravelTimeEstimator {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double travelSpeedKmh;
+    private final double roadFactor;
+
+    public TravelTimeEstimator(@Value("${app.schedule.travel-speed-kmh:25}") double travelSpeedKmh,
+                               @Value("${app.schedule.road-factor:1.4}") double roadFactor) {
+        this.travelSpeedKmh = travelSpeedKmh;
+        this.roadFactor = roadFactor;
+    }
+
+    public double km(double lat1, double lon1, double lat2, double lon2) {
+        if (Double.isNaN(lat1) || Double.isNaN(lat2)) return 0;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    public int minutes(double lat1, double lon1, double lat2, double lon2) {
+        return minutesForKm(km(lat1, lon1, lat2, lon2));
+    }
+
+    public int minutesForKm(double km) {
+        return (int) Math.ceil(km * roadFactor / travelSpeedKmh * 60);
+    }
+}
@@ -24,7 +24,7 @@ public class ContentFlagController {
     @Operation(summary = "Flag content as inappropriate")
     @PostMapping
     public ResponseEntity<Void> flagContent(@Valid @RequestBody FlagContentRequest request) {
-        User reporter = currentUserService.getCurrentUserEntity();
+        User reporter = currentUserService.getCurrentUserReference();
         moderationService.flagContent(
                 request.getContentType(),
                 request.getContentId(),
@@ -3,6 +3,10 @@ package com.yatrika.moderation.service;
 
 import com.yatrika.community.domain.Post;
 import com.yatrika.community.repository.PostRepository;
+import com.yatrika.community.service.PostFeedIndex;
+import com.yatrika.community.service.PostLikeMembership;
+import com.yatrika.community.service.PostTrendingIndex;
+import com.yatrika.destination.repository.DestinationRepository;
 import com.yatrika.moderation.domain.ContentFlag;
 import com.yatrika.moderation.repository.ContentFlagRepository;
 import com.yatrika.review.domain.Review;
@@ -20,6 +24,10 @@ public class ModerationService {
     private final ContentFlagRepository contentFlagRepository;
     private final PostRepository postRepository;
     private final ReviewRepository reviewRepository;
+    private final DestinationRepository destinationRepository;
+    private final PostTrendingIndex trendingIndex;
+    private final PostFeedIndex feedIndex;
+    private final PostLikeMembership likeMembership;
 
     @Transactional
     public ContentFlag flagContent(ContentFlag.ContentType contentType, Long contentId,
@@ -48,10 +56,15 @@ public class ModerationService {
             Post post = postRepository.findById(contentId)
                     .orElseThrow(() -> new RuntimeException("Post not found"));
             postRepository.delete(post);
+            // Same in-memory hooks as PostService.deletePost (the search index follows the entity listener)
+            trendingIndex.onPostDeleted(contentId);
+            feedIndex.onPostDeleted(contentId);
+            likeMembership.onPostDeleted(contentId);
         } else {
             Review review = reviewRepository.findById(contentId)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
             reviewRepository.delete(review);
+            destinationRepository.removeRating(review.getDestination().getId(), review.getRating());
         }
     }
 }
\ No newline at end of file
@@ -21,11 +21,6 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     boolean existsByUserIdAndDestinationId(Long userId, Long destinationId);
 
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.destination.id = :destinationId")
-    Double findAverageRatingByDestinationId(@Param("destinationId") Long destinationId);
-
-    Long countByDestinationId(Long destinationId);
-
     @Query("SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
 
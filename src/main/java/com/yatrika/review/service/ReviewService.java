@@ -18,9 +18,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -53,8 +50,8 @@ public class ReviewService {
 
         Review savedReview = reviewRepository.save(review);
 
-        // Update destination's average rating
-        updateDestinationRating(destination.getId());
+        // Fold the new rating into the destination's running aggregates
+        destinationRepository.addRating(destination.getId(), savedReview.getRating());
 
         log.info("Review created by user {} for destination {}", currentUser.getId(), destination.getId());
         return reviewMapper.toResponse(savedReview);
@@ -65,14 +62,17 @@ public class ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", "id", reviewId));
 
-        User currentUser = currentUserService.getCurrentUserEntity();
-        if (!review.isByUser(currentUser.getId())) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (!review.isByUser(userId)) {
             throw new AppException("You can only update your own reviews");
         }
 
+        Long oldDestinationId = review.getDestination().getId();
+        int oldRating = review.getRating();
+
         // If destination changed, check if user already reviewed the new destination
-        if (!review.getDestination().getId().equals(request.getDestinationId())) {
-            if (reviewRepository.existsByUserIdAndDestinationId(currentUser.getId(), request.getDestinationId())) {
+        if (!oldDestinationId.equals(request.getDestinationId())) {
+            if (reviewRepository.existsByUserIdAndDestinationId(userId, request.getDestinationId())) {
                 throw new AppException("You have already reviewed this destination");
             }
             Destination newDestination = destinationRepository.findById(request.getDestinationId())
@@ -86,11 +86,13 @@ public class ReviewService {
 
         Review updatedReview = reviewRepository.save(review);
 
-        // Update both old and new destination ratings
-        if (!review.getDestination().getId().equals(request.getDestinationId())) {
-            updateDestinationRating(review.getDestination().getId());
+        // Move the rating between destinations, or just re-bucket it on the same one
+        if (!oldDestinationId.equals(request.getDestinationId())) {
+            destinationRepository.removeRating(oldDestinationId, oldRating);
+            destinationRepository.addRating(request.getDestinationId(), updatedReview.getRating());
+        } else {
+            destinationRepository.changeRating(oldDestinationId, oldRating, updatedReview.getRating());
         }
-        updateDestinationRating(request.getDestinationId());
 
         return reviewMapper.toResponse(updatedReview);
     }
@@ -100,16 +102,15 @@ public class ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", "id", reviewId));
 
-        User currentUser = currentUserService.getCurrentUserEntity();
-        if (!review.isByUser(currentUser.getId())) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (!review.isByUser(userId)) {
             throw new AppException("You can only delete your own reviews");
         }
 
         Long destinationId = review.getDestination().getId();
         reviewRepository.delete(review);
 
-        // Update destination's average rating
-        updateDestinationRating(destinationId);
+        destinationRepository.removeRating(destinationId, review.getRating());
     }
 
     public Page<ReviewResponse> getReviewsByDestination(Long destinationId, Pageable pageable) {
@@ -122,8 +123,8 @@ public class ReviewService {
     }
 
     public Page<ReviewResponse> getMyReviews(Pageable pageable) {
-        User currentUser = currentUserService.getCurrentUserEntity();
-        Page<Review> reviews = reviewRepository.findByUserId(currentUser.getId(), pageable);
+        Long userId = currentUserService.getCurrentUserId();
+        Page<Review> reviews = reviewRepository.findByUserId(userId, pageable);
         return reviews.map(reviewMapper::toResponse);
     }
 
@@ -144,21 +145,4 @@ public class ReviewService {
 
         return reviewMapper.toResponse(verifiedReview);
     }
-
-    private void updateDestinationRating(Long destinationId) {
-        Double averageRating = reviewRepository.findAverageRatingByDestinationId(destinationId);
-        Long totalReviews = reviewRepository.countByDestinationId(destinationId);
-
-        Destination destination = destinationRepository.findById(destinationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Destination", "id", destinationId));
-
-        if (averageRating != null) {
-            destination.setAverageRating(BigDecimal.valueOf(averageRating).setScale(2, RoundingMode.HALF_UP));
-        } else {
-            destination.setAverageRating(BigDecimal.ZERO);
-        }
-        destination.setTotalReviews(totalReviews.intValue());
-
-        destinationRepository.save(destination);
-    }
 }
\ No newline at end of file
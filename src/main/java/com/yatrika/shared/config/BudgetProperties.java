@@ -0,0 +1,19 @@
+package com.yatrika.shared.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.budget")
+public class BudgetProperties {
+    // Cost assumed for an item without an explicit estimatedCost, keyed by activityType (VISIT, MEAL, ...)
+    private Map<String, BigDecimal> activityDefaults = new HashMap<>();
+    // Used when the activity type is missing or not listed above
+    private BigDecimal fallbackDefault = BigDecimal.ZERO;
+}
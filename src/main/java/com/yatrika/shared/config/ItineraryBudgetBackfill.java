@@ -0,0 +1,48 @@
+package com.yatrika.shared.config;
+
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.itinerary.service.ItineraryBudgetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class ItineraryBudgetBackfill {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final ItineraryRepository itineraryRepository;
+    private final ItineraryBudgetService budgetService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Trips that predate calculated_budget / resolved_cost get every item resolved once; afterwards
+    // the total only moves by the per-item deltas. Cost rules live in configuration, so this runs
+    // in Java rather than as one UPDATE.
+    @Bean
+    CommandLineRunner backfillItineraryBudgets() {
+        return args -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int total = 0;
+            List<Long> ids;
+            do {
+                ids = itineraryRepository.findIdsWithoutCalculatedBudget(Limit.of(BATCH_SIZE));
+                List<Long> batch = ids;
+                transaction.executeWithoutResult(status ->
+                        itineraryRepository.findAllById(batch).forEach(budgetService::recalculate));
+                total += ids.size();
+            } while (ids.size() == BATCH_SIZE);
+            if (total > 0) {
+                log.info("Calculated budgets backfilled for {} itineraries", total);
+            }
+        };
+    }
+}
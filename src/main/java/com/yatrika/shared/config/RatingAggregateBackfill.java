@@ -0,0 +1,32 @@
+package com.yatrika.shared.config;
+
+import com.yatrika.destination.repository.DestinationRepository;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateBackfill {
+
+    private final DestinationRepository destinationRepository;
+    private final ItineraryRepository itineraryRepository;
+
+    // Rows that predate the rating_sum / histogram columns get them computed once from the
+    // review tables; afterwards the columns are only moved by the per-review atomic updates.
+    @Bean
+    CommandLineRunner backfillRatingAggregates() {
+        return args -> {
+            int destinations = destinationRepository.backfillRatingAggregates();
+            int itineraries = itineraryRepository.backfillRatingAggregates();
+            if (destinations > 0 || itineraries > 0) {
+                log.info("Rating aggregates backfilled for {} destinations and {} itineraries",
+                        destinations, itineraries);
+            }
+        };
+    }
+}
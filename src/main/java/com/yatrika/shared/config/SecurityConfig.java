@@ -76,6 +76,7 @@ public class SecurityConfig {
                         // ========================
                         .requestMatchers(HttpMethod.GET,"/api/v1/itineraries/admin-templates").permitAll()
                         .requestMatchers(HttpMethod.GET,"/api/v1/itineraries/{id}").permitAll()
+                        .requestMatchers(HttpMethod.GET,"/api/v1/itineraries/{id}/similar").permitAll()
 
                         .requestMatchers(
                                 "/api/v1/admin/**",
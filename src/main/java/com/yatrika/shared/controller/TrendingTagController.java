@@ -0,0 +1,33 @@
+package com.yatrika.shared.controller;
+
+import com.yatrika.shared.dto.TrendingTagResponse;
+import com.yatrika.shared.service.TrendingTagTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/public/trending-tags")
+@RequiredArgsConstructor
+@Tag(name = "Trending Tags", description = "Tags hot right now across posts, likes and searches")
+public class TrendingTagController {
+
+    private final TrendingTagTracker trendingTags;
+
+    @GetMapping
+    @Operation(summary = "Get the most used tags of the last 24 hours (Public)")
+    public ResponseEntity<List<TrendingTagResponse>> getTrendingTags(
+            @RequestParam(defaultValue = "20") int limit) {
+        List<TrendingTagResponse> tags = trendingTags.top(Math.max(1, Math.min(limit, 100))).stream()
+                .map(tag -> new TrendingTagResponse(tag.tag(), tag.score()))
+                .toList();
+        return ResponseEntity.ok(tags);
+    }
+}
@@ -0,0 +1,58 @@
+package com.yatrika.shared.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-star review counts kept on the rated row (destination, itinerary).
+ * The columns are only ever changed through the repositories' atomic
+ * "applyRatingChange" updates, never by loading and saving the parent, so
+ * they are not updatable through the entity.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingHistogram {
+
+    @Column(name = "rating_1_count", updatable = false)
+    @Builder.Default
+    private Integer oneStar = 0;
+
+    @Column(name = "rating_2_count", updatable = false)
+    @Builder.Default
+    private Integer twoStar = 0;
+
+    @Column(name = "rating_3_count", updatable = false)
+    @Builder.Default
+    private Integer threeStar = 0;
+
+    @Column(name = "rating_4_count", updatable = false)
+    @Builder.Default
+    private Integer fourStar = 0;
+
+    @Column(name = "rating_5_count", updatable = false)
+    @Builder.Default
+    private Integer fiveStar = 0;
+
+    // Star -> count, ordered 1..5 so clients can render bars directly
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        counts.put(1, oneStar != null ? oneStar : 0);
+        counts.put(2, twoStar != null ? twoStar : 0);
+        counts.put(3, threeStar != null ? threeStar : 0);
+        counts.put(4, fourStar != null ? fourStar : 0);
+        counts.put(5, fiveStar != null ? fiveStar : 0);
+        return counts;
+    }
+}
@@ -0,0 +1,36 @@
+package com.yatrika.shared.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDate;
+
+/**
+ * One day of distinct viewers of one post or destination, as an encoded HyperLogLog
+ * (a few bytes for a quiet day, at most about 3 KB).
+ */
+@Entity
+@Table(name = "unique_viewer_sketches",
+        uniqueConstraints = @UniqueConstraint(name = "uk_unique_viewer_sketch_day",
+                columnNames = {"entity_type", "entity_id", "day"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class UniqueViewerSketch extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private ViewedEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private byte[] sketch;
+}
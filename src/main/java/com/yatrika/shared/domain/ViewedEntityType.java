@@ -0,0 +1,7 @@
+package com.yatrika.shared.domain;
+
+// Entities whose unique viewers are counted (see UniqueViewerService)
+public enum ViewedEntityType {
+    POST,
+    DESTINATION
+}
@@ -0,0 +1,14 @@
+package com.yatrika.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A tag and its weighted usage (posts, likes, searches) over the trending window; may overcount slightly
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingTagResponse {
+    private String tag;
+    private long score;
+}
@@ -0,0 +1,17 @@
+package com.yatrika.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Estimated distinct viewers (users or guests) over [from, to], within about 2%
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueViewersResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private long uniqueViewers;
+}
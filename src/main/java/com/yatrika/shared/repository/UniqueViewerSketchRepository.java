@@ -0,0 +1,31 @@
+package com.yatrika.shared.repository;
+
+import com.yatrika.shared.domain.UniqueViewerSketch;
+import com.yatrika.shared.domain.ViewedEntityType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface UniqueViewerSketchRepository extends JpaRepository<UniqueViewerSketch, Long> {
+
+    // Row lock so two flushes (e.g. two instances) merge into the same day one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UniqueViewerSketch s " +
+            "WHERE s.entityType = :type AND s.entityId = :entityId AND s.day = :day")
+    Optional<UniqueViewerSketch> findForMerge(@Param("type") ViewedEntityType type,
+                                              @Param("entityId") Long entityId,
+                                              @Param("day") LocalDate day);
+
+    @Query("SELECT s.sketch FROM UniqueViewerSketch s " +
+            "WHERE s.entityType = :type AND s.entityId = :entityId AND s.day BETWEEN :from AND :to")
+    List<byte[]> findSketches(@Param("type") ViewedEntityType type,
+                              @Param("entityId") Long entityId,
+                              @Param("from") LocalDate from,
+                              @Param("to") LocalDate to);
+}
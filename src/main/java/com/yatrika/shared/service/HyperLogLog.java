@@ -0,0 +1,120 @@
+package com.yatrika.shared.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct-count sketch with 2^12 registers (about 1.6% standard error).
+ *
+ * Sketches merge by taking the register-wise maximum, so per-day sketches combine into any
+ * date range. {@link #toBytes()} picks the smaller of two encodings: sparse (index, value)
+ * pairs while few registers are set, otherwise the registers packed at 6 bits each (3 KB).
+ * Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    private static final int P = 12;
+    private static final int M = 1 << P;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+    private static final int DENSE_BYTES = M * 6 / 8;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private final byte[] registers = new byte[M];
+
+    public void add(String value) {
+        long hash = hash64(value.getBytes(StandardCharsets.UTF_8));
+        int index = (int) (hash >>> (64 - P));
+        // Rank of the first set bit in the remaining 52 bits, 1-based
+        int rank = Math.min(Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1, 64 - P + 1);
+        if (rank > registers[index]) registers[index] = (byte) rank;
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < M; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double raw = ALPHA * M * M / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (raw <= 2.5 * M && zeros > 0) return Math.round(M * Math.log((double) M / zeros));
+        return Math.round(raw);
+    }
+
+    // ================= ENCODING =================
+
+    public byte[] toBytes() {
+        int set = 0;
+        for (byte register : registers) if (register != 0) set++;
+
+        if (1 + 2 + set * 3 < 1 + DENSE_BYTES) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(3 + set * 3);
+            out.write(SPARSE);
+            out.write(set >>> 8);
+            out.write(set);
+            for (int i = 0; i < M; i++) {
+                if (registers[i] == 0) continue;
+                out.write(i >>> 8);
+                out.write(i);
+                out.write(registers[i]);
+            }
+            return out.toByteArray();
+        }
+
+        byte[] bytes = new byte[1 + DENSE_BYTES];
+        bytes[0] = DENSE;
+        // Four 6-bit registers per three bytes
+        for (int i = 0, b = 1; i < M; i += 4, b += 3) {
+            int packed = registers[i] << 18 | registers[i + 1] << 12 | registers[i + 2] << 6 | registers[i + 3];
+            bytes[b] = (byte) (packed >>> 16);
+            bytes[b + 1] = (byte) (packed >>> 8);
+            bytes[b + 2] = (byte) packed;
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes[0] == SPARSE) {
+            int set = (bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF);
+            for (int n = 0, b = 3; n < set; n++, b += 3) {
+                sketch.registers[(bytes[b] & 0xFF) << 8 | (bytes[b + 1] & 0xFF)] = bytes[b + 2];
+            }
+        } else if (bytes[0] == DENSE) {
+            for (int i = 0, b = 1; i < M; i += 4, b += 3) {
+                int packed = (bytes[b] & 0xFF) << 16 | (bytes[b + 1] & 0xFF) << 8 | (bytes[b + 2] & 0xFF);
+                sketch.registers[i] = (byte) (packed >>> 18 & 0x3F);
+                sketch.registers[i + 1] = (byte) (packed >>> 12 & 0x3F);
+                sketch.registers[i + 2] = (byte) (packed >>> 6 & 0x3F);
+                sketch.registers[i + 3] = (byte) (packed & 0x3F);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog encoding " + bytes[0]);
+        }
+        return sketch;
+    }
+
+    // FNV-1a followed by the MurmurHash3 finalizer, so every input bit reaches the index and rank bits
+    private static long hash64(byte[] data) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,211 @@
+package com.yatrika.shared.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Which tags are hot right now, from tags on newly published posts, likes on tagged posts and
+ * tags used in searches.
+ *
+ * The window (24 x 1 hour by default) is a ring of time buckets, each a weighted Space-Saving
+ * summary of at most {@code capacity} tags: a new tag that arrives when a bucket is full takes
+ * over the smallest counter, so heavy hitters are always kept and memory never grows. A bucket
+ * is cleared when the ring comes back round to it, which slides the window. Top tags are the
+ * per-bucket counts summed over the window and cut down with a bounded heap.
+ */
+@Component
+public class TrendingTagTracker {
+
+    public record TrendingTag(String tag, long score) {}
+
+    // A published post says more about what people care about than a like or a search
+    private static final long POST_WEIGHT = 3;
+    private static final long LIKE_WEIGHT = 1;
+    private static final long SEARCH_WEIGHT = 1;
+
+    private static final int MAX_TAG_LENGTH = 50;
+
+    private static final class Counter {
+        final String tag;
+        long count;
+
+        Counter(String tag, long count) {
+            this.tag = tag;
+            this.count = count;
+        }
+    }
+
+    private static final Comparator<Counter> SMALLEST_FIRST =
+            Comparator.<Counter>comparingLong(c -> c.count).thenComparing(c -> c.tag);
+
+    // One time bucket's Space-Saving summary
+    private static final class Bucket {
+        long epoch = -1;
+        final Map<String, Counter> counters = new HashMap<>();
+        final TreeSet<Counter> byCount = new TreeSet<>(SMALLEST_FIRST);
+
+        void add(String tag, long weight, int capacity) {
+            Counter counter = counters.get(tag);
+            if (counter == null && counters.size() >= capacity) {
+                // Evict the smallest and inherit its count, the Space-Saving overestimate
+                Counter smallest = byCount.pollFirst();
+                counters.remove(smallest.tag);
+                counter = new Counter(tag, smallest.count);
+                counters.put(tag, counter);
+            } else if (counter == null) {
+                counter = new Counter(tag, 0);
+                counters.put(tag, counter);
+            } else {
+                byCount.remove(counter);
+            }
+            counter.count += weight;
+            byCount.add(counter);
+        }
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            counters.clear();
+            byCount.clear();
+        }
+    }
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int capacity;
+
+    // guarded by this
+    private final Bucket[] buckets;
+
+    @Autowired
+    public TrendingTagTracker(@Value("${app.trending-tags.bucket-width:PT1H}") Duration bucketWidth,
+                              @Value("${app.trending-tags.buckets:24}") int bucketCount,
+                              @Value("${app.trending-tags.capacity:256}") int capacity) {
+        this(Clock.systemUTC(), bucketWidth, bucketCount, capacity);
+    }
+
+    TrendingTagTracker(Clock clock, Duration bucketWidth, int bucketCount, int capacity) {
+        this.clock = clock;
+        this.bucketMillis = bucketWidth.toMillis();
+        this.capacity = capacity;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) buckets[i] = new Bucket();
+    }
+
+    // ================= EVENTS =================
+
+    public void onPostPublished(Collection<String> tags) {
+        AfterCommit.run(() -> add(tags, POST_WEIGHT));
+    }
+
+    // The tags are looked up once the like has committed, so the lookup stays off the like transaction
+    public void onPostLiked(Supplier<? extends Collection<String>> tags) {
+        AfterCommit.run(() -> add(tags.get(), LIKE_WEIGHT));
+    }
+
+    // Tags picked explicitly as search filters
+    public void onTagsSearched(Collection<String> tags) {
+        add(tags, SEARCH_WEIGHT);
+    }
+
+    // Free-text searches only count words that are already being tracked as tags, so ordinary
+    // query words cannot push real tags out of the summaries
+    public void onKeywordSearched(String query) {
+        if (query == null || query.isBlank()) return;
+        List<String> words = new ArrayList<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}-]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        synchronized (this) {
+            long epoch = currentEpoch();
+            for (String word : words) {
+                if (isTracked(word, epoch)) current(epoch).add(word, SEARCH_WEIGHT, capacity);
+            }
+        }
+    }
+
+    // ================= QUERY =================
+
+    public synchronized List<TrendingTag> top(int limit) {
+        long epoch = currentEpoch();
+        Map<String, Long> totals = new HashMap<>();
+        for (Bucket bucket : buckets) {
+            if (!inWindow(bucket, epoch)) continue;
+            bucket.counters.values().forEach(c -> totals.merge(c.tag, c.count, Long::sum));
+        }
+
+        Comparator<TrendingTag> order = Comparator.comparingLong(TrendingTag::score)
+                .thenComparing(TrendingTag::tag, Comparator.reverseOrder());
+        PriorityQueue<TrendingTag> heap = new PriorityQueue<>(order);
+        totals.forEach((tag, score) -> {
+            TrendingTag candidate = new TrendingTag(tag, score);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (order.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+
+        List<TrendingTag> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    public List<String> topTags(int limit) {
+        return top(limit).stream().map(TrendingTag::tag).toList();
+    }
+
+    // ================= INTERNALS =================
+
+    private void add(Collection<String> tags, long weight) {
+        if (tags == null || tags.isEmpty()) return;
+        synchronized (this) {
+            Bucket bucket = current(currentEpoch());
+            for (String tag : tags) {
+                String normalized = normalize(tag);
+                if (normalized != null) bucket.add(normalized, weight, capacity);
+            }
+        }
+    }
+
+    private long currentEpoch() {
+        return clock.millis() / bucketMillis;
+    }
+
+    private Bucket current(long epoch) {
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        if (bucket.epoch != epoch) bucket.reset(epoch);
+        return bucket;
+    }
+
+    private boolean inWindow(Bucket bucket, long epoch) {
+        return bucket.epoch > epoch - buckets.length && bucket.epoch <= epoch;
+    }
+
+    private boolean isTracked(String tag, long epoch) {
+        for (Bucket bucket : buckets) {
+            if (inWindow(bucket, epoch) && bucket.counters.containsKey(tag)) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String tag) {
+        if (tag == null) return null;
+        String normalized = tag.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() || normalized.length() > MAX_TAG_LENGTH ? null : normalized;
+    }
+}
@@ -0,0 +1,154 @@
+package com.yatrika.shared.service;
+
+import com.yatrika.shared.domain.UniqueViewerSketch;
+import com.yatrika.shared.domain.ViewedEntityType;
+import com.yatrika.shared.dto.UniqueViewersResponse;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.repository.UniqueViewerSketchRepository;
+import com.yatrika.shared.security.GuestContext;
+import com.yatrika.user.service.CurrentUserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct viewers per post / destination per day, counted with HyperLogLog sketches keyed on
+ * the user id or, for anonymous requests, the guest id from GuestInterceptor.
+ *
+ * Views go into in-memory sketches for (entity, day); a scheduled flush merges each one into
+ * its persisted day row (register-wise max, under a row lock). A range query merges the stored
+ * days with whatever is still pending, so repeat views, refreshes and multiple instances never
+ * inflate the count.
+ */
+@Service
+@Slf4j
+public class UniqueViewerService {
+
+    private record Key(ViewedEntityType type, long entityId, LocalDate day) {}
+
+    private final UniqueViewerSketchRepository sketchRepository;
+    private final CurrentUserService currentUserService;
+    private final GuestContext guestContext;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRangeDays;
+
+    private final ConcurrentHashMap<Key, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public UniqueViewerService(UniqueViewerSketchRepository sketchRepository,
+                               CurrentUserService currentUserService,
+                               GuestContext guestContext,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.unique-viewers.max-range-days:366}") int maxRangeDays) {
+        this.sketchRepository = sketchRepository;
+        this.currentUserService = currentUserService;
+        this.guestContext = guestContext;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // ================= RECORD =================
+
+    // "u<id>" for a signed-in user, "g<guestId>" for an anonymous web request, otherwise null
+    public String currentViewerKey() {
+        Long userId = currentUserService.getCurrentUserIdOrNull();
+        if (userId != null) return "u" + userId;
+        if (RequestContextHolder.getRequestAttributes() != null && guestContext.getGuestId() != null) {
+            return "g" + guestContext.getGuestId();
+        }
+        return null;
+    }
+
+    public void record(ViewedEntityType type, Long entityId, String viewerKey) {
+        if (viewerKey == null) return; // nothing to tell this viewer apart by
+        // compute() is atomic per key, so a concurrent flush either sees this view or leaves it for the next one
+        pending.compute(new Key(type, entityId, LocalDate.now()), (key, sketch) -> {
+            HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+            target.add(viewerKey);
+            return target;
+        });
+    }
+
+    public void recordCurrentViewer(ViewedEntityType type, Long entityId) {
+        record(type, entityId, currentViewerKey());
+    }
+
+    // ================= QUERY =================
+
+    // Defaults to the last 30 days ending today
+    public UniqueViewersResponse uniqueViewers(ViewedEntityType type, Long entityId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new AppException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw new AppException("Date range can span at most " + maxRangeDays + " days");
+        }
+
+        HyperLogLog merged = new HyperLogLog();
+        sketchRepository.findSketches(type, entityId, start, end)
+                .forEach(bytes -> merged.merge(HyperLogLog.fromBytes(bytes)));
+        pending.forEach((key, sketch) -> {
+            if (key.type() == type && key.entityId() == entityId
+                    && !key.day().isBefore(start) && !key.day().isAfter(end)) {
+                // Read under the map's per-key lock so a concurrent record() does not race the merge
+                pending.computeIfPresent(key, (k, current) -> {
+                    merged.merge(current);
+                    return current;
+                });
+            }
+        });
+        return new UniqueViewersResponse(start, end, merged.estimate());
+    }
+
+    // ================= FLUSH =================
+
+    @Scheduled(fixedDelayString = "${app.unique-viewers.flush-interval:PT1M}")
+    public void flush() {
+        Map<Key, HyperLogLog> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(key);
+            if (sketch != null) batch.put(key, sketch);
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::mergeIntoDay));
+        } catch (RuntimeException e) {
+            // Sketches merge losslessly, so put them back for the next flush
+            batch.forEach((key, sketch) -> pending.merge(key, sketch, (current, failed) -> {
+                current.merge(failed);
+                return current;
+            }));
+            log.warn("Unique viewer flush failed for {} sketches, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void mergeIntoDay(Key key, HyperLogLog sketch) {
+        UniqueViewerSketch row = sketchRepository.findForMerge(key.type(), key.entityId(), key.day())
+                .orElseGet(() -> UniqueViewerSketch.builder()
+                        .entityType(key.type())
+                        .entityId(key.entityId())
+                        .day(key.day())
+                        .build());
+        if (row.getSketch() != null) sketch.merge(HyperLogLog.fromBytes(row.getSketch()));
+        row.setSketch(sketch.toBytes());
+        sketchRepository.save(row);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
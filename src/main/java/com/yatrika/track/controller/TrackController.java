@@ -0,0 +1,73 @@
+package com.yatrika.track.controller;
+
+import com.yatrika.track.dto.response.TrackGeometryResponse;
+import com.yatrika.track.dto.response.TrackResponse;
+import com.yatrika.track.service.TrackService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tracks")
+@RequiredArgsConstructor
+@Tag(name = "Tracks", description = "Recorded GPX / GeoJSON routes attached to posts and itinerary days")
+public class TrackController {
+
+    private final TrackService trackService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Upload a GPX or GeoJSON track for one of your posts or itinerary days")
+    public ResponseEntity<TrackResponse> uploadTrack(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long postId,
+            @RequestParam(required = false) Long itineraryId,
+            @RequestParam(required = false) Integer dayNumber) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(trackService.upload(file, postId, itineraryId, dayNumber));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Track stats and bounding box")
+    public ResponseEntity<TrackResponse> getTrack(@PathVariable Long id) {
+        return ResponseEntity.ok(trackService.getTrack(id));
+    }
+
+    @GetMapping("/{id}/geometry")
+    @Operation(summary = "Encoded polyline simplified for a map zoom level")
+    public ResponseEntity<TrackGeometryResponse> getGeometry(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "12") int zoom) {
+        return ResponseEntity.ok(trackService.getGeometry(id, Math.max(0, Math.min(zoom, 22))));
+    }
+
+    @GetMapping("/post/{postId}")
+    @Operation(summary = "Tracks attached to a post")
+    public ResponseEntity<List<TrackResponse>> getPostTracks(@PathVariable Long postId) {
+        return ResponseEntity.ok(trackService.getPostTracks(postId));
+    }
+
+    @GetMapping("/itinerary/{itineraryId}")
+    @Operation(summary = "Tracks attached to an itinerary, optionally for one day")
+    public ResponseEntity<List<TrackResponse>> getItineraryTracks(
+            @PathVariable Long itineraryId,
+            @RequestParam(required = false) Integer dayNumber) {
+        return ResponseEntity.ok(trackService.getItineraryTracks(itineraryId, dayNumber));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Delete one of your tracks")
+    public ResponseEntity<Void> deleteTrack(@PathVariable Long id) {
+        trackService.deleteTrack(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.yatrika.track.domain;
+
+import com.yatrika.community.domain.Post;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.shared.domain.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A recorded route attached to a community post or to one day of an itinerary.
+ * Only the simplified geometry is kept: one encoded polyline per zoom level,
+ * plus the bounding box and stats computed from the raw points at upload.
+ */
+@Entity
+@Table(name = "tracks", indexes = {
+        @Index(name = "idx_tracks_post", columnList = "post_id"),
+        @Index(name = "idx_tracks_itinerary_day", columnList = "itinerary_id, day_number")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class Track extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "itinerary_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Itinerary itinerary;
+
+    @Column(name = "day_number")
+    private Integer dayNumber; // set together with itinerary
+
+    @Column(length = 200)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_format", length = 10, nullable = false)
+    private TrackFormat sourceFormat;
+
+    // --- Stats over the raw upload ---
+    @Column(name = "raw_point_count")
+    private Integer rawPointCount;
+
+    @Column(name = "distance_meters")
+    private Double distanceMeters;
+
+    @Column(name = "elevation_gain_meters")
+    private Double elevationGainMeters;
+
+    @Column(name = "elevation_loss_meters")
+    private Double elevationLossMeters;
+
+    @Column(name = "min_elevation")
+    private Double minElevation;
+
+    @Column(name = "max_elevation")
+    private Double maxElevation;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "ended_at")
+    private Instant endedAt;
+
+    // --- Bounding box ---
+    @Column(name = "min_lat")
+    private Double minLat;
+
+    @Column(name = "min_lon")
+    private Double minLon;
+
+    @Column(name = "max_lat")
+    private Double maxLat;
+
+    @Column(name = "max_lon")
+    private Double maxLon;
+
+    // Zoom level -> encoded polyline (precision 1e-5) simplified for that zoom
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "track_polylines", joinColumns = @JoinColumn(name = "track_id"))
+    @MapKeyColumn(name = "zoom")
+    @Column(name = "polyline", columnDefinition = "TEXT", nullable = false)
+    @Builder.Default
+    private Map<Integer, String> polylines = new HashMap<>();
+}
@@ -0,0 +1,6 @@
+package com.yatrika.track.domain;
+
+public enum TrackFormat {
+    GPX,
+    GEOJSON
+}
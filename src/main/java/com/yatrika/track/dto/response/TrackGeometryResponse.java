@@ -0,0 +1,18 @@
+package com.yatrika.track.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackGeometryResponse {
+    private Long trackId;
+    private Integer zoom;           // stored level actually served
+    private List<Integer> zoomLevels;
+    private String polyline;        // Google encoded polyline, precision 1e-5
+    private List<Double> bbox;      // [minLon, minLat, maxLon, maxLat]
+}
@@ -0,0 +1,31 @@
+package com.yatrika.track.dto.response;
+
+import com.yatrika.track.domain.TrackFormat;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class TrackResponse {
+    private Long id;
+    private String name;
+    private TrackFormat sourceFormat;
+    private Long postId;
+    private Long itineraryId;
+    private Integer dayNumber;
+
+    private Integer rawPointCount;
+    private Double distanceMeters;
+    private Double elevationGainMeters;
+    private Double elevationLossMeters;
+    private Double minElevation;
+    private Double maxElevation;
+    private Instant startedAt;
+    private Instant endedAt;
+    private Long durationSeconds;
+
+    private List<Double> bbox; // [minLon, minLat, maxLon, maxLat], GeoJSON order
+    private LocalDateTime createdAt;
+}
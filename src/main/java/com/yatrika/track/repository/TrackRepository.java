@@ -0,0 +1,31 @@
+package com.yatrika.track.repository;
+
+import com.yatrika.track.domain.Track;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TrackRepository extends JpaRepository<Track, Long> {
+
+    List<Track> findByPostIdOrderByCreatedAtAsc(Long postId);
+
+    List<Track> findByItineraryIdOrderByDayNumberAscCreatedAtAsc(Long itineraryId);
+
+    List<Track> findByItineraryIdAndDayNumberOrderByCreatedAtAsc(Long itineraryId, Integer dayNumber);
+
+    // Stored zoom level that best serves the requested zoom: the most detailed one not above it,
+    // or the coarsest stored level when the request is below all of them. Returns [zoom, polyline].
+    @Query(value = """
+        SELECT zoom, polyline FROM track_polylines
+        WHERE track_id = :trackId
+        ORDER BY CASE WHEN zoom <= :zoom THEN 0 ELSE 1 END,
+                 CASE WHEN zoom <= :zoom THEN -zoom ELSE zoom END
+        LIMIT 1
+        """, nativeQuery = true)
+    List<Object[]> findPolylineForZoom(@Param("trackId") Long trackId, @Param("zoom") int zoom);
+
+    @Query("SELECT KEY(p) FROM Track t JOIN t.polylines p WHERE t.id = :trackId ORDER BY KEY(p)")
+    List<Integer> findZoomLevels(@Param("trackId") Long trackId);
+}
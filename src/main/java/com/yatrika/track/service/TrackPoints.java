@@ -0,0 +1,106 @@
+package com.yatrika.track.service;
+
+import com.yatrika.shared.exception.AppException;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Sink for streamed track points. Stats and the bounding box are folded in from every raw point;
+ * only points at least minSpacingMeters from the last kept one are stored (in primitive arrays),
+ * so the heap holds a thinned copy of the route, never the raw upload.
+ */
+final class TrackPoints {
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final double ELEVATION_HYSTERESIS_M = 3.0; // ignore GPS altitude jitter below this
+
+    private final double minSpacingMeters;
+    private final int maxPoints;
+
+    double[] lat = new double[1024];
+    double[] lon = new double[1024];
+    int size;
+
+    String name;
+    int rawCount;
+    double distanceMeters;
+    double gainMeters;
+    double lossMeters;
+    double minElevation = Double.NaN;
+    double maxElevation = Double.NaN;
+    double minLat = Double.MAX_VALUE, minLon = Double.MAX_VALUE;
+    double maxLat = -Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+    Instant startedAt;
+    Instant endedAt;
+
+    private double lastLat, lastLon;
+    private double elevationRef = Double.NaN;
+    private boolean lastKept;
+
+    TrackPoints(double minSpacingMeters, int maxPoints) {
+        this.minSpacingMeters = minSpacingMeters;
+        this.maxPoints = maxPoints;
+    }
+
+    void add(double latitude, double longitude, double elevation, Instant time) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new AppException("Track point out of range: " + latitude + ", " + longitude);
+        }
+        if (rawCount > 0) distanceMeters += distance(lastLat, lastLon, latitude, longitude);
+        rawCount++;
+
+        minLat = Math.min(minLat, latitude);
+        maxLat = Math.max(maxLat, latitude);
+        minLon = Math.min(minLon, longitude);
+        maxLon = Math.max(maxLon, longitude);
+
+        if (!Double.isNaN(elevation)) {
+            minElevation = Double.isNaN(minElevation) ? elevation : Math.min(minElevation, elevation);
+            maxElevation = Double.isNaN(maxElevation) ? elevation : Math.max(maxElevation, elevation);
+            if (Double.isNaN(elevationRef)) {
+                elevationRef = elevation;
+            } else if (Math.abs(elevation - elevationRef) >= ELEVATION_HYSTERESIS_M) {
+                if (elevation > elevationRef) gainMeters += elevation - elevationRef;
+                else lossMeters += elevationRef - elevation;
+                elevationRef = elevation;
+            }
+        }
+        if (time != null) {
+            if (startedAt == null) startedAt = time;
+            endedAt = time;
+        }
+
+        lastKept = size == 0 || distance(lat[size - 1], lon[size - 1], latitude, longitude) >= minSpacingMeters;
+        if (lastKept) keep(latitude, longitude);
+        lastLat = latitude;
+        lastLon = longitude;
+    }
+
+    // The route must end where the recording ended, even if the last point was inside the spacing radius
+    void finish() {
+        if (rawCount > 0 && !lastKept) keep(lastLat, lastLon);
+        lastKept = true;
+    }
+
+    private void keep(double latitude, double longitude) {
+        if (size == maxPoints) {
+            throw new AppException("Track is too large (more than " + maxPoints + " distinct points)");
+        }
+        if (size == lat.length) {
+            lat = Arrays.copyOf(lat, size * 2);
+            lon = Arrays.copyOf(lon, size * 2);
+        }
+        lat[size] = latitude;
+        lon[size] = longitude;
+        size++;
+    }
+
+    static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.yatrika.track.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.yatrika.shared.exception.AppException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Streaming readers that push points into a {@link TrackPoints} sink one at a time:
+ * StAX for GPX (trkpt / rtept with optional ele and time) and the Jackson token stream
+ * for GeoJSON (LineString / MultiLineString coordinates, bare Points are skipped).
+ */
+final class TrackReader {
+
+    private static final XMLInputFactory XML = createXmlFactory();
+
+    private TrackReader() {
+    }
+
+    private static XMLInputFactory createXmlFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Uploaded files are untrusted: no DTDs, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    // ================= GPX =================
+
+    static void readGpx(InputStream in, TrackPoints sink) {
+        XMLStreamReader xml = null;
+        try {
+            xml = XML.createXMLStreamReader(in);
+            boolean inPoint = false;
+            double lat = 0, lon = 0, ele = Double.NaN;
+            Instant time = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = xml.getLocalName();
+                    if (element.equals("trkpt") || element.equals("rtept")) {
+                        inPoint = true;
+                        lat = parseDouble(xml.getAttributeValue(null, "lat"));
+                        lon = parseDouble(xml.getAttributeValue(null, "lon"));
+                        ele = Double.NaN;
+                        time = null;
+                    } else if (inPoint && element.equals("ele")) {
+                        ele = parseDouble(xml.getElementText().trim());
+                    } else if (inPoint && element.equals("time")) {
+                        time = parseTime(xml.getElementText().trim());
+                    } else if (!inPoint && element.equals("name") && sink.name == null) {
+                        sink.name = xml.getElementText().trim();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inPoint) {
+                    String element = xml.getLocalName();
+                    if (element.equals("trkpt") || element.equals("rtept")) {
+                        sink.add(lat, lon, ele, time);
+                        inPoint = false;
+                    }
+                }
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new AppException("Invalid GPX file: " + e.getMessage());
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+        sink.finish();
+    }
+
+    private static double parseDouble(String value) {
+        if (value == null || value.isBlank()) throw new NumberFormatException("missing coordinate");
+        return Double.parseDouble(value);
+    }
+
+    private static Instant parseTime(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null; // time is optional; a malformed one only costs the duration stat
+        }
+    }
+
+    // ================= GEOJSON =================
+
+    static void readGeoJson(InputStream in, JsonFactory json, TrackPoints sink) {
+        try (JsonParser parser = json.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME) continue;
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if (field.equals("coordinates") && token == JsonToken.START_ARRAY) {
+                    readCoordinates(parser, sink);
+                } else if (field.equals("name") && token == JsonToken.VALUE_STRING && sink.name == null) {
+                    sink.name = parser.getText().trim();
+                }
+            }
+        } catch (IOException e) {
+            throw new AppException("Invalid GeoJSON file: " + e.getMessage());
+        }
+        sink.finish();
+    }
+
+    // Positioned on the START_ARRAY of a "coordinates" value
+    private static void readCoordinates(JsonParser parser, TrackPoints sink) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != null && token.isNumeric()) {
+            // A Point: a single position is a waypoint, not part of the route
+            skipRest(parser);
+            return;
+        }
+        while (token == JsonToken.START_ARRAY) {
+            readNested(parser, sink);
+            token = parser.nextToken();
+        }
+    }
+
+    // Positioned on a START_ARRAY that is either a position [lon, lat, ele?] or a list of them
+    private static void readNested(JsonParser parser, TrackPoints sink) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != null && token.isNumeric()) {
+            double lon = parser.getDoubleValue();
+            parser.nextToken();
+            double lat = parser.getDoubleValue();
+            double ele = Double.NaN;
+            token = parser.nextToken();
+            if (token != null && token.isNumeric()) {
+                ele = parser.getDoubleValue();
+                token = parser.nextToken();
+            }
+            if (token != JsonToken.END_ARRAY) skipRest(parser);
+            sink.add(lat, lon, ele, null);
+            return;
+        }
+        while (token == JsonToken.START_ARRAY) {
+            readNested(parser, sink);
+            token = parser.nextToken();
+        }
+    }
+
+    // Consumes tokens up to and including the END_ARRAY closing the current array
+    private static void skipRest(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token.isStructStart()) parser.skipChildren();
+        }
+    }
+}
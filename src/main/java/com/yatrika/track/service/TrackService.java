@@ -0,0 +1,284 @@
+package com.yatrika.track.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.shared.exception.AppException;
+import com.yatrika.shared.exception.ResourceNotFoundException;
+import com.yatrika.track.domain.Track;
+import com.yatrika.track.domain.TrackFormat;
+import com.yatrika.track.dto.response.TrackGeometryResponse;
+import com.yatrika.track.dto.response.TrackResponse;
+import com.yatrika.track.repository.TrackRepository;
+import com.yatrika.user.service.CurrentUserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Slf4j
+public class TrackService {
+
+    private final TrackRepository trackRepository;
+    private final PostRepository postRepository;
+    private final ItineraryRepository itineraryRepository;
+    private final CurrentUserService currentUserService;
+    private final ObjectMapper objectMapper;
+    private final int[] zoomLevels;
+    private final double pixelTolerance;
+    private final double minSpacingMeters;
+    private final int maxPoints;
+
+    public TrackService(TrackRepository trackRepository,
+                        PostRepository postRepository,
+                        ItineraryRepository itineraryRepository,
+                        CurrentUserService currentUserService,
+                        ObjectMapper objectMapper,
+                        @Value("${app.tracks.zoom-levels:6,9,12,15}") int[] zoomLevels,
+                        @Value("${app.tracks.pixel-tolerance:1.0}") double pixelTolerance,
+                        @Value("${app.tracks.min-spacing-meters:2}") double minSpacingMeters,
+                        @Value("${app.tracks.max-points:200000}") int maxPoints) {
+        this.trackRepository = trackRepository;
+        this.postRepository = postRepository;
+        this.itineraryRepository = itineraryRepository;
+        this.currentUserService = currentUserService;
+        this.objectMapper = objectMapper;
+        this.zoomLevels = zoomLevels.clone();
+        Arrays.sort(this.zoomLevels);
+        this.pixelTolerance = pixelTolerance;
+        this.minSpacingMeters = minSpacingMeters;
+        this.maxPoints = maxPoints;
+    }
+
+    // ================= UPLOAD =================
+
+    /**
+     * Parses the upload as a stream and stores only per-zoom simplified polylines plus stats.
+     * Not transactional as a whole: the parse can take a while on big files and should not
+     * hold a connection; the ownership checks and the insert are each a short statement.
+     */
+    public TrackResponse upload(MultipartFile file, Long postId, Long itineraryId, Integer dayNumber) {
+        Long userId = currentUserService.getCurrentUserId();
+        if ((postId == null) == (itineraryId == null)) {
+            throw new AppException("Attach the track to exactly one of a post or an itinerary day");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new AppException("Track file is empty");
+        }
+
+        Track.TrackBuilder<?, ?> builder = Track.builder().userId(userId);
+        if (postId != null) {
+            if (!postRepository.existsByIdAndUserId(postId, userId)) {
+                throw new ResourceNotFoundException("Post", "id", postId);
+            }
+            builder.post(postRepository.getReferenceById(postId));
+        } else {
+            if (dayNumber == null || dayNumber < 1) {
+                throw new AppException("A day number is required when attaching to an itinerary");
+            }
+            Itinerary itinerary = itineraryRepository.findById(itineraryId)
+                    .filter(it -> Objects.equals(it.getUserId(), userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+            if (itinerary.getTotalDays() != null && dayNumber > itinerary.getTotalDays()) {
+                throw new AppException("Day " + dayNumber + " is outside this itinerary");
+            }
+            builder.itinerary(itinerary).dayNumber(dayNumber);
+        }
+
+        TrackFormat format = detectFormat(file);
+        TrackPoints points = new TrackPoints(minSpacingMeters, maxPoints);
+        try (InputStream in = file.getInputStream()) {
+            if (format == TrackFormat.GPX) {
+                TrackReader.readGpx(in, points);
+            } else {
+                TrackReader.readGeoJson(in, objectMapper.getFactory(), points);
+            }
+        } catch (IOException e) {
+            throw new AppException("Could not read track file: " + e.getMessage());
+        }
+        if (points.size < 2) {
+            throw new AppException("Track needs at least two points");
+        }
+
+        Track track = builder
+                .name(trackName(points.name, file.getOriginalFilename()))
+                .sourceFormat(format)
+                .rawPointCount(points.rawCount)
+                .distanceMeters(round(points.distanceMeters))
+                .elevationGainMeters(Double.isNaN(points.minElevation) ? null : round(points.gainMeters))
+                .elevationLossMeters(Double.isNaN(points.minElevation) ? null : round(points.lossMeters))
+                .minElevation(Double.isNaN(points.minElevation) ? null : round(points.minElevation))
+                .maxElevation(Double.isNaN(points.maxElevation) ? null : round(points.maxElevation))
+                .startedAt(points.startedAt)
+                .endedAt(points.endedAt)
+                .minLat(points.minLat).minLon(points.minLon)
+                .maxLat(points.maxLat).maxLon(points.maxLon)
+                .polylines(simplify(points))
+                .build();
+
+        Track saved = trackRepository.save(track);
+        log.info("Track {} stored: {} raw points, {} kept before simplification, {} m",
+                saved.getId(), points.rawCount, points.size, Math.round(points.distanceMeters));
+        return toResponse(saved, postId, itineraryId);
+    }
+
+    // Finest level first; each coarser level simplifies what the finer one kept
+    private Map<Integer, String> simplify(TrackPoints points) {
+        double referenceLat = (points.minLat + points.maxLat) / 2;
+        TrackSimplifier simplifier = new TrackSimplifier(points.lat, points.lon, points.size, referenceLat);
+        Map<Integer, String> polylines = new HashMap<>();
+        int[] indices = simplifier.all();
+        for (int i = zoomLevels.length - 1; i >= 0; i--) {
+            int zoom = zoomLevels[i];
+            indices = simplifier.simplify(indices, TrackSimplifier.toleranceMeters(zoom, referenceLat, pixelTolerance));
+            polylines.put(zoom, TrackSimplifier.encode(points.lat, points.lon, indices));
+        }
+        return polylines;
+    }
+
+    private TrackFormat detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        String type = file.getContentType() == null ? "" : file.getContentType().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gpx") || type.contains("gpx")) return TrackFormat.GPX;
+        if (name.endsWith(".geojson") || name.endsWith(".json") || type.contains("json")) return TrackFormat.GEOJSON;
+        throw new AppException("Only GPX and GeoJSON tracks are supported");
+    }
+
+    private String trackName(String parsed, String fileName) {
+        String name = parsed != null && !parsed.isBlank() ? parsed : fileName;
+        if (name == null) return null;
+        return name.length() > 200 ? name.substring(0, 200) : name;
+    }
+
+    // ================= READ =================
+
+    @Transactional(readOnly = true)
+    public TrackGeometryResponse getGeometry(Long trackId, int zoom) {
+        Track track = loadVisible(trackId);
+        List<Object[]> rows = trackRepository.findPolylineForZoom(trackId, zoom);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Track", "id", trackId);
+        }
+        Object[] row = rows.get(0);
+        return new TrackGeometryResponse(trackId, ((Number) row[0]).intValue(),
+                trackRepository.findZoomLevels(trackId), (String) row[1], bbox(track));
+    }
+
+    @Transactional(readOnly = true)
+    public TrackResponse getTrack(Long trackId) {
+        Track track = loadVisible(trackId);
+        return toResponse(track, postIdOf(track), itineraryIdOf(track));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrackResponse> getPostTracks(Long postId) {
+        Long userId = currentUserService.getCurrentUserId();
+        if (!postRepository.existsByIdAndUserId(postId, userId) && !postRepository.existsByIdAndIsPublicTrue(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        return trackRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
+                .map(t -> toResponse(t, postId, null))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrackResponse> getItineraryTracks(Long itineraryId, Integer dayNumber) {
+        Itinerary itinerary = itineraryRepository.findById(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+        if (!canSee(itinerary, currentUserService.getCurrentUserId())) {
+            throw new ResourceNotFoundException("Itinerary not found");
+        }
+        List<Track> tracks = dayNumber == null
+                ? trackRepository.findByItineraryIdOrderByDayNumberAscCreatedAtAsc(itineraryId)
+                : trackRepository.findByItineraryIdAndDayNumberOrderByCreatedAtAsc(itineraryId, dayNumber);
+        return tracks.stream().map(t -> toResponse(t, null, itineraryId)).toList();
+    }
+
+    // ================= DELETE =================
+
+    @Transactional
+    public void deleteTrack(Long trackId) {
+        Track track = trackRepository.findById(trackId)
+                .filter(t -> Objects.equals(t.getUserId(), currentUserService.getCurrentUserId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Track", "id", trackId));
+        trackRepository.delete(track);
+    }
+
+    // ================= HELPERS =================
+
+    // Visible to its uploader, or to anyone who can see the post / itinerary it hangs off
+    private Track loadVisible(Long trackId) {
+        Long userId = currentUserService.getCurrentUserId();
+        Track track = trackRepository.findById(trackId)
+                .orElseThrow(() -> new ResourceNotFoundException("Track", "id", trackId));
+        if (Objects.equals(track.getUserId(), userId)) return track;
+
+        boolean visible = track.getPost() != null
+                ? postRepository.existsByIdAndIsPublicTrue(track.getPost().getId())
+                : track.getItinerary() != null && canSee(track.getItinerary(), userId);
+        if (!visible) {
+            throw new ResourceNotFoundException("Track", "id", trackId);
+        }
+        return track;
+    }
+
+    private boolean canSee(Itinerary itinerary, Long userId) {
+        return Objects.equals(itinerary.getUserId(), userId)
+                || Boolean.TRUE.equals(itinerary.getIsPublic())
+                || itinerary.getStatus() == ItineraryStatus.TEMPLATE;
+    }
+
+    private Long postIdOf(Track track) {
+        return track.getPost() != null ? track.getPost().getId() : null;
+    }
+
+    private Long itineraryIdOf(Track track) {
+        return track.getItinerary() != null ? track.getItinerary().getId() : null;
+    }
+
+    private TrackResponse toResponse(Track track, Long postId, Long itineraryId) {
+        TrackResponse response = new TrackResponse();
+        response.setId(track.getId());
+        response.setName(track.getName());
+        response.setSourceFormat(track.getSourceFormat());
+        response.setPostId(postId);
+        response.setItineraryId(itineraryId);
+        response.setDayNumber(track.getDayNumber());
+        response.setRawPointCount(track.getRawPointCount());
+        response.setDistanceMeters(track.getDistanceMeters());
+        response.setElevationGainMeters(track.getElevationGainMeters());
+        response.setElevationLossMeters(track.getElevationLossMeters());
+        response.setMinElevation(track.getMinElevation());
+        response.setMaxElevation(track.getMaxElevation());
+        response.setStartedAt(track.getStartedAt());
+        response.setEndedAt(track.getEndedAt());
+        if (track.getStartedAt() != null && track.getEndedAt() != null) {
+            response.setDurationSeconds(Duration.between(track.getStartedAt(), track.getEndedAt()).getSeconds());
+        }
+        response.setBbox(bbox(track));
+        response.setCreatedAt(track.getCreatedAt());
+        return response;
+    }
+
+    private List<Double> bbox(Track track) {
+        return List.of(track.getMinLon(), track.getMinLat(), track.getMaxLon(), track.getMaxLat());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.yatrika.track.service;
+
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker over a local equirectangular projection (metres) and Google's
+ * encoded-polyline format (1e-5 degrees) for the stored geometry.
+ */
+final class TrackSimplifier {
+
+    private static final double METERS_PER_DEGREE = 111_319.49;
+    // Ground size of one 256px-tile pixel at the equator for zoom 0
+    private static final double METERS_PER_PIXEL_Z0 = 156_543.034;
+
+    private final double[] x;
+    private final double[] y;
+
+    TrackSimplifier(double[] lat, double[] lon, int size, double referenceLat) {
+        double cos = Math.cos(Math.toRadians(referenceLat));
+        this.x = new double[size];
+        this.y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = lon[i] * METERS_PER_DEGREE * cos;
+            y[i] = lat[i] * METERS_PER_DEGREE;
+        }
+    }
+
+    static double toleranceMeters(int zoom, double referenceLat, double pixels) {
+        return METERS_PER_PIXEL_Z0 * Math.cos(Math.toRadians(referenceLat)) / (1L << zoom) * pixels;
+    }
+
+    // All point indices, the starting input for the finest level
+    int[] all() {
+        int[] indices = new int[x.length];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        return indices;
+    }
+
+    /**
+     * Simplifies the polyline made of the given point indices. Coarser levels can be fed the
+     * output of finer ones, so each level only walks what the previous one kept. Iterative,
+     * since a 50k-point track would overflow the stack when recursing on a straight section.
+     */
+    int[] simplify(int[] indices, double toleranceMeters) {
+        int n = indices.length;
+        if (n < 3) return indices.clone();
+        boolean[] keep = new boolean[n];
+        keep[0] = keep[n - 1] = true;
+        double tolerance2 = toleranceMeters * toleranceMeters;
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int worst = -1;
+            double worstDistance = tolerance2;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistance2(indices[i], indices[first], indices[last]);
+                if (d > worstDistance) {
+                    worstDistance = d;
+                    worst = i;
+                }
+            }
+            if (worst < 0) continue;
+            keep[worst] = true;
+            if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = first;
+            stack[top++] = worst;
+            stack[top++] = worst;
+            stack[top++] = last;
+        }
+
+        int count = 0;
+        for (boolean k : keep) if (k) count++;
+        int[] kept = new int[count];
+        for (int i = 0, j = 0; i < n; i++) if (keep[i]) kept[j++] = indices[i];
+        return kept;
+    }
+
+    private double segmentDistance2(int p, int a, int b) {
+        double dx = x[b] - x[a], dy = y[b] - y[a];
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, ((x[p] - x[a]) * dx + (y[p] - y[a]) * dy) / len2));
+        double ex = x[a] + t * dx - x[p], ey = y[a] + t * dy - y[p];
+        return ex * ex + ey * ey;
+    }
+
+    static String encode(double[] lat, double[] lon, int[] indices) {
+        StringBuilder out = new StringBuilder(indices.length * 8);
+        long prevLat = 0, prevLon = 0;
+        for (int i : indices) {
+            long eLat = Math.round(lat[i] * 1e5);
+            long eLon = Math.round(lon[i] * 1e5);
+            encodeValue(eLat - prevLat, out);
+            encodeValue(eLon - prevLon, out);
+            prevLat = eLat;
+            prevLon = eLon;
+        }
+        return out.toString();
+    }
+
+    private static void encodeValue(long value, StringBuilder out) {
+        long v = value < 0 ? ~(value << 1) : value << 1;
+        while (v >= 0x20) {
+            out.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        out.append((char) (v + 63));
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmailAndIsActiveTrue(String email);
 
+    // Author chips for a page of post cards: [id, username, profileImageUrl]
+    @Query("SELECT u.id, u.username, u.profileImageUrl FROM User u WHERE u.id IN :ids")
+    List<Object[]> findSummaryRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i FROM User u JOIN u.interests i WHERE u.id = :userId")
+    List<String> findInterestsByUserId(@Param("userId") Long userId);
+
     long countByIsActive(Boolean isActive);
 
     // Admin methods
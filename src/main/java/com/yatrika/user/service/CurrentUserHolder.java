@@ -0,0 +1,24 @@
+package com.yatrika.user.service;
+
+import com.yatrika.user.domain.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Per-request memo of the authenticated {@link User}, filled on the first
+ * {@link CurrentUserService} entity lookup and reused for the rest of the request.
+ */
+@Component
+@RequestScope
+public class CurrentUserHolder {
+
+    private User user;
+
+    User get(Long userId) {
+        return user != null && user.getId().equals(userId) ? user : null;
+    }
+
+    void set(User user) {
+        this.user = user;
+    }
+}
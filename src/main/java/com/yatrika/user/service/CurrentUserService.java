@@ -12,6 +12,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -20,34 +23,61 @@ public class CurrentUserService {
     private final UserService userService;
     private final UserMapper userMapper;
     private final UserRepository  userRepository;
+    private final CurrentUserHolder currentUserHolder;
 
     public Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal)) {
+        Long userId = getCurrentUserIdOrNull();
+        if (userId == null) {
             throw new AppException("User not authenticated");
         }
+        return userId;
+    }
 
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    // Id straight from the authenticated principal, null for guests; never touches the database
+    public Long getCurrentUserIdOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserPrincipal userPrincipal)) {
+            return null;
+        }
         return userPrincipal.getId();
     }
 
+    // Loaded at most once per request, then served from the request-scoped holder
     public User getCurrentUserEntity() {
         Long userId = getCurrentUserId();
-        return userService.getUserEntity(userId);
+        return memoized(userId, () -> userService.getUserEntity(userId));
     }
 
     public User getCurrentUserEntityOrNull() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null ||
-                !authentication.isAuthenticated() ||
-                !(authentication.getPrincipal() instanceof UserPrincipal)) {
+        Long userId = getCurrentUserIdOrNull();
+        if (userId == null) {
             return null; // Don't throw exception for guests
         }
+        return memoized(userId, () -> userRepository.findById(userId).orElse(null));
+    }
+
+    // Lazy proxy for setting foreign keys (reporter, resolvedBy, ...) without a SELECT
+    public User getCurrentUserReference() {
+        Long userId = getCurrentUserId();
+        User cached = inRequest() ? currentUserHolder.get(userId) : null;
+        return cached != null ? cached : userRepository.getReferenceById(userId);
+    }
+
+    private User memoized(Long userId, Supplier<User> loader) {
+        if (!inRequest()) {
+            return loader.get(); // scheduled jobs, async work and tests have no request scope
+        }
+        User cached = currentUserHolder.get(userId);
+        if (cached == null) {
+            cached = loader.get();
+            currentUserHolder.set(cached);
+        }
+        return cached;
+    }
 
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return userRepository.findById(userPrincipal.getId()).orElse(null);
+    private boolean inRequest() {
+        return RequestContextHolder.getRequestAttributes() != null;
     }
 
     public UserResponse getCurrentUser() {
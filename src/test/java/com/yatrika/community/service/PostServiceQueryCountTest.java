@@ -0,0 +1,146 @@
+package com.yatrika.community.service;
+
+import com.yatrika.community.domain.Post;
+import com.yatrika.community.domain.PostLike;
+import com.yatrika.community.dto.response.PostCardResponse;
+import com.yatrika.community.repository.PostLikeRepository;
+import com.yatrika.community.repository.PostRepository;
+import com.yatrika.shared.security.UserPrincipal;
+import com.yatrika.user.domain.User;
+import com.yatrika.user.domain.UserRole;
+import com.yatrika.user.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.yatrika.community.service.PostServiceQueryCountTest$SqlRecorder")
+class PostServiceQueryCountTest {
+
+    // Hibernate instantiates this by class name, so the recorded statements live in a static list
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired private PostService postService;
+    @Autowired private PostRepository postRepository;
+    @Autowired private PostLikeRepository postLikeRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final String marker = "qc" + UUID.randomUUID().toString().substring(0, 8);
+    private User author;
+    private final List<Long> postIds = new ArrayList<>();
+    private final Set<Long> likedIds = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder()
+                .email(marker + "@test.local").username(marker).password("x")
+                .firstName("Query").lastName("Count").role(UserRole.USER)
+                .isActive(true).isEmailVerified(true).build());
+        for (int i = 0; i < 20; i++) {
+            Post post = postRepository.save(Post.builder()
+                    .user(author).title(marker + " post " + i).content("content " + i)
+                    .isPublic(true).tags(Set.of("tag" + i % 3)).build());
+            postIds.add(post.getId());
+            if (i % 2 == 0) {
+                postLikeRepository.save(PostLike.builder().post(post).user(author).build());
+                likedIds.add(post.getId());
+            }
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(author.getId(), author.getEmail(), author.getUsername(), "x", List.of()),
+                null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        likedIds.forEach(postId -> postLikeRepository.findByPostIdAndUserId(postId, author.getId())
+                .ifPresent(postLikeRepository::delete));
+        postRepository.deleteAllById(postIds);
+        userRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void myPostsPageUsesOneLikedQueryAndConstantStatementCount() {
+        Page<PostCardResponse> small = page(() -> postService.getMyPosts(PageRequest.of(0, 5, Sort.by("id"))));
+        int smallCount = SqlRecorder.STATEMENTS.size();
+        Page<PostCardResponse> full = page(() -> postService.getMyPosts(PageRequest.of(0, 20, Sort.by("id"))));
+        List<String> fullStatements = List.copyOf(SqlRecorder.STATEMENTS);
+
+        assertThat(small.getContent()).hasSize(5);
+        assertThat(full.getContent()).hasSize(20);
+        assertThat(likeQueries(fullStatements)).hasSize(1);
+        // Page size must not change the number of statements: no per-post queries
+        assertThat(fullStatements).hasSize(smallCount);
+        assertThat(full.getContent()).allSatisfy(post ->
+                assertThat(post.getIsLikedByCurrentUser()).isEqualTo(likedIds.contains(post.getId())));
+    }
+
+    @Test
+    void searchPageResolvesLikedFlagsInOneQuery() {
+        Page<PostCardResponse> result = page(() -> postService.searchPosts(marker, PageRequest.of(0, 20)));
+
+        assertThat(result.getContent()).hasSize(20);
+        assertThat(likeQueries(SqlRecorder.STATEMENTS)).hasSize(1);
+        assertThat(result.getContent().stream().filter(PostCardResponse::getIsLikedByCurrentUser)
+                .map(PostCardResponse::getId).collect(Collectors.toSet())).isEqualTo(likedIds);
+    }
+
+    @Test
+    void cardPageUsesProjectionAndBatchedLookupsOnly() {
+        Page<PostCardResponse> result = page(() -> postService.getMyPosts(PageRequest.of(0, 20, Sort.by("id"))));
+        List<String> statements = List.copyOf(SqlRecorder.STATEMENTS);
+
+        assertThat(result.getContent()).allSatisfy(card -> {
+            assertThat(card.getUser().getUsername()).isEqualTo(marker);
+            assertThat(card.getSnippet()).startsWith("content");
+        });
+        // Card projection, page count, authors, media heads, liked flags: no tags, days or full entities
+        assertThat(statements).hasSize(5);
+        assertThat(statements).noneMatch(sql -> sql.contains("post_tags") || sql.contains("post_days"));
+    }
+
+    // Runs the call like a web request does under open-session-in-view and records its SQL
+    private Page<PostCardResponse> page(Supplier<Page<PostCardResponse>> call) {
+        SqlRecorder.STATEMENTS.clear();
+        TransactionTemplate request = new TransactionTemplate(transactionManager);
+        request.setReadOnly(true);
+        return request.execute(status -> call.get());
+    }
+
+    private static List<String> likeQueries(List<String> statements) {
+        synchronized (statements) {
+            return statements.stream().filter(sql -> sql.contains("post_likes")).toList();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.yatrika.itinerary.controller;
+
+import com.yatrika.itinerary.service.BudgetOptimizerService;
+import com.yatrika.itinerary.service.ItineraryExportService;
+import com.yatrika.itinerary.service.ItineraryService;
+import com.yatrika.itinerary.service.NextStopSuggestionService;
+import com.yatrika.itinerary.service.ScheduleFeasibilityService;
+import com.yatrika.shared.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ItineraryControllerTest {
+
+    private final ItineraryService itineraryService = mock(ItineraryService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        ItineraryController controller = new ItineraryController(itineraryService, mock(ItineraryExportService.class),
+                mock(ScheduleFeasibilityService.class), mock(NextStopSuggestionService.class),
+                mock(BudgetOptimizerService.class));
+        ReflectionTestUtils.setField(controller, "maxAutoSplitDays", 60);
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void autoSplitRejectsMoreDaysThanTheConfiguredMaximum() throws Exception {
+        mvc.perform(post("/api/v1/itineraries/7/auto-split").param("days", "2000000000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Number of days must be between 1 and 60"));
+
+        verifyNoInteractions(itineraryService);
+    }
+
+    @Test
+    void autoSplitRejectsZeroDays() throws Exception {
+        mvc.perform(post("/api/v1/itineraries/7/auto-split").param("days", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itineraryService);
+    }
+}
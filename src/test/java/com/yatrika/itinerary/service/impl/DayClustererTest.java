@@ -0,0 +1,82 @@
+package com.yatrika.itinerary.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayClustererTest {
+
+    // Three tight groups of four stops, far apart from each other
+    private static final double[][] CENTRES = {{27.70, 85.30}, {28.20, 83.98}, {27.53, 84.45}};
+
+    private final double[] lat = new double[12];
+    private final double[] lon = new double[12];
+
+    DayClustererTest() {
+        for (int i = 0; i < 12; i++) {
+            double[] centre = CENTRES[i / 4];
+            lat[i] = centre[0] + (i % 2) * 0.01;
+            lon[i] = centre[1] + (i % 4 / 2) * 0.01;
+        }
+    }
+
+    private static double distance(double lat1, double lon1, double lat2, double lon2) {
+        return Math.hypot(lat1 - lat2, lon1 - lon2);
+    }
+
+    private DayClusterer clusterer(double[] weight, int days) {
+        return new DayClusterer(weight, lat, lon, days, DayClustererTest::distance);
+    }
+
+    private static double[] ones() {
+        double[] weight = new double[12];
+        Arrays.fill(weight, 1);
+        return weight;
+    }
+
+    @Test
+    void splitsIntoTheRequestedNumberOfDaysVisitingEveryStopOnce() {
+        DayClusterer.Plan plan = clusterer(ones(), 3).solve(8, 42);
+
+        assertThat(plan.days()).hasSize(3);
+        int[] visited = plan.days().stream().flatMapToInt(Arrays::stream).sorted().toArray();
+        assertThat(visited).containsExactly(IntStream.range(0, 12).toArray());
+    }
+
+    @Test
+    void keepsEachNearbyGroupOnOneDay() {
+        DayClusterer.Plan plan = clusterer(ones(), 3).solve(8, 42);
+
+        for (int[] day : plan.days()) {
+            assertThat(day).hasSize(4);
+            assertThat(Arrays.stream(day).map(i -> i / 4).distinct().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void dayLoadStaysWithinCapacity() {
+        DayClusterer.Plan plan = clusterer(ones(), 2).solve(8, 7);
+
+        // Capacity is the even share plus 15% slack: 6 * 1.15 stops
+        assertThat(plan.days()).hasSize(2);
+        assertThat(plan.days()).allSatisfy(day -> assertThat(day.length).isLessThanOrEqualTo(6));
+    }
+
+    @Test
+    void daysAreChainedFromTheFirstStopsDayToTheNearestNextDay() {
+        DayClusterer.Plan plan = clusterer(ones(), 3).solve(8, 42);
+
+        // Group 0 holds stop 0; group 2 is closer to it than group 1 is
+        assertThat(plan.days()).extracting(day -> day[0] / 4).containsExactly(0, 2, 1);
+        for (int d = 0; d + 1 < plan.days().size(); d++) {
+            int[] day = plan.days().get(d), next = plan.days().get(d + 1);
+            int last = day[day.length - 1];
+            // Each day is entered from whichever of its ends is nearer the previous day's last stop
+            assertThat(distance(lat[last], lon[last], lat[next[0]], lon[next[0]]))
+                    .isLessThanOrEqualTo(distance(lat[last], lon[last], lat[next[next.length - 1]], lon[next[next.length - 1]]));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.domain.Destination;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.domain.ItineraryItem;
+import com.yatrika.itinerary.domain.ItineraryStatus;
+import com.yatrika.itinerary.dto.response.SimilarItineraryResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItinerarySimilarityIndexTest {
+
+    private final ItineraryRepository repository = mock(ItineraryRepository.class);
+    private final List<Object[]> rows = new ArrayList<>();
+    private ItinerarySimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findSharedItineraryDestinationRows(ItineraryStatus.TEMPLATE)).thenReturn(rows);
+        index = new ItinerarySimilarityIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    // One (trip, destination) row per destination id in [from, to), as the loader query returns them
+    private void trip(long id, long from, long to, long... extra) {
+        for (long d = from; d < to; d++) rows.add(new Object[]{id, "Trip " + id, null, d, null, ItineraryStatus.COMPLETED});
+        for (long d : extra) rows.add(new Object[]{id, "Trip " + id, null, d, null, ItineraryStatus.COMPLETED});
+    }
+
+    @Test
+    void nearDuplicateTripIsACandidateRankedByExactJaccard() {
+        trip(1, 1, 11);      // destinations 1..10
+        trip(2, 1, 10, 11);  // 1..9 and 11: 9 shared of 11
+        trip(3, 100, 110);   // nothing in common
+
+        List<SimilarItineraryResponse> similar = index.similarTo(1L, 5);
+
+        assertThat(similar).extracting(SimilarItineraryResponse::getId).containsExactly(2L);
+        assertThat(similar.get(0).getSimilarity()).isCloseTo(9.0 / 11, within(1e-9));
+    }
+
+    @Test
+    void tripsWithoutDestinationsAreNotIndexed() {
+        rows.add(new Object[]{7L, "Empty", null, null, null, ItineraryStatus.COMPLETED});
+        trip(1, 1, 5);
+
+        assertThat(index.similarTo(7L, 5)).isNull();
+        assertThat(index.similarTo(1L, 5)).isEmpty();
+    }
+
+    @Test
+    void refreshAfterLoadMakesATripFindable() {
+        trip(3, 100, 110);
+        assertThat(index.similarTo(3L, 5)).isEmpty();
+
+        index.refreshAfterCommit(publicTrip(4L, 100, 110));
+
+        assertThat(index.similarTo(3L, 5)).extracting(SimilarItineraryResponse::getId).containsExactly(4L);
+        assertThat(index.similarTo(3L, 5).get(0).getSimilarity()).isEqualTo(1.0);
+    }
+
+    private static Itinerary publicTrip(Long id, long from, long to) {
+        Itinerary itinerary = Itinerary.builder().title("Trip " + id).isPublic(true).status(ItineraryStatus.COMPLETED).build();
+        itinerary.setId(id);
+        for (long d = from; d < to; d++) {
+            Destination destination = Destination.builder().name("D" + d).build();
+            destination.setId(d);
+            itinerary.addItem(ItineraryItem.builder().destination(destination).build());
+        }
+        return itinerary;
+    }
+}
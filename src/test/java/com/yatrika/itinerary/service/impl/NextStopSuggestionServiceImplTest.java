@@ -0,0 +1,105 @@
+package com.yatrika.itinerary.service.impl;
+
+import com.yatrika.destination.repository.DestinationRepository;
+import com.yatrika.destination.service.DestinationAttributeIndex;
+import com.yatrika.itinerary.domain.Itinerary;
+import com.yatrika.itinerary.dto.response.NextStopSuggestionResponse;
+import com.yatrika.itinerary.repository.ItineraryRepository;
+import com.yatrika.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NextStopSuggestionServiceImplTest {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2024, 5, 3);
+    private static final int THURSDAY_IDX = 4; // OperatingHour weekdays: 0 = Sunday
+    private static final int FRIDAY_IDX = 5;
+
+    private final ItineraryRepository itineraryRepository = mock(ItineraryRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DestinationRepository destinationRepository = mock(DestinationRepository.class);
+    private final List<Object[]> destinations = new ArrayList<>();
+    private final List<Object[]> hours = new ArrayList<>();
+    private DestinationAttributeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(destinationRepository.findAttributeRows()).thenReturn(destinations);
+        when(destinationRepository.findOperatingHourRows()).thenReturn(hours);
+        index = new DestinationAttributeIndex(destinationRepository);
+        ReflectionTestUtils.setField(index, "maxAge", Duration.ofMinutes(15));
+
+        Itinerary trip = Itinerary.builder().title("Trip").userId(1L).startDate(FRIDAY).build();
+        trip.setId(10L);
+        when(itineraryRepository.findByIdWithDetails(10L)).thenReturn(Optional.of(trip));
+        when(userRepository.findInterestsByUserId(1L)).thenReturn(List.of());
+    }
+
+    private NextStopSuggestionServiceImpl service(String dayStart, String dayEnd) {
+        return new NextStopSuggestionServiceImpl(itineraryRepository, userRepository, index,
+                new TravelTimeEstimator(25, 1.4), 40, LocalTime.parse(dayStart), LocalTime.parse(dayEnd));
+    }
+
+    // One-hour stop at the same point, so travel and detour are zero
+    private void destination(long id) {
+        destinations.add(new Object[]{id, "Place " + id, new BigDecimal("27.7"), new BigDecimal("85.3"), 1,
+                BigDecimal.ZERO, null, null, null, null, null, null});
+    }
+
+    private void open(long id, int weekday, String opens, String closes) {
+        hours.add(new Object[]{id, weekday, LocalTime.parse(opens), LocalTime.parse(closes), false});
+    }
+
+    private void closed(long id, int weekday) {
+        hours.add(new Object[]{id, weekday, null, null, true});
+    }
+
+    @Test
+    void overnightAndRoundTheClockPlacesAreSuggested() {
+        destination(1);
+        open(1, FRIDAY_IDX, "18:00", "02:00");   // bar, runs past midnight
+        destination(2);
+        open(2, FRIDAY_IDX, "00:00", "00:00");   // round the clock
+        destination(3);
+        open(3, FRIDAY_IDX, "09:00", "17:00");
+        destination(4);
+        closed(4, FRIDAY_IDX);
+
+        List<NextStopSuggestionResponse> suggestions = service("08:00", "20:00").suggest(10L, 1, null, 10, 1L);
+
+        assertThat(suggestions).extracting(NextStopSuggestionResponse::getDestinationId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+        NextStopSuggestionResponse bar = suggestions.stream().filter(s -> s.getDestinationId() == 1L).findFirst().orElseThrow();
+        assertThat(bar.getArrivalTime()).isEqualTo(LocalTime.of(18, 0));
+        NextStopSuggestionResponse allDay = suggestions.stream().filter(s -> s.getDestinationId() == 2L).findFirst().orElseThrow();
+        assertThat(allDay.getArrivalTime()).isEqualTo(LocalTime.of(8, 0));
+    }
+
+    @Test
+    void earlyVisitFitsThePreviousDaysOvernightHours() {
+        destination(1);
+        open(1, THURSDAY_IDX, "20:00", "03:00");
+        closed(1, FRIDAY_IDX);
+        destination(2);
+        open(2, THURSDAY_IDX, "20:00", "01:00");  // tail ends before the stay does
+        closed(2, FRIDAY_IDX);
+
+        List<NextStopSuggestionResponse> suggestions = service("00:30", "06:00").suggest(10L, 1, null, 10, 1L);
+
+        assertThat(suggestions).extracting(NextStopSuggestionResponse::getDestinationId).containsExactly(1L);
+        assertThat(suggestions.get(0).getArrivalTime()).isEqualTo(LocalTime.of(0, 30));
+    }
+}
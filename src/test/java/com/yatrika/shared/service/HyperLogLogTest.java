@@ -0,0 +1,68 @@
+package com.yatrika.shared.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) sketch.add("u" + i);
+        return sketch;
+    }
+
+    @Test
+    void estimateStaysWithinTheErrorBound() {
+        // 1.6% standard error; allow about three of them
+        assertThat(sketchOf(0, 1_000).estimate()).isCloseTo(1_000L, within(50L));
+        assertThat(sketchOf(0, 100_000).estimate()).isCloseTo(100_000L, within(5_000L));
+    }
+
+    @Test
+    void repeatedValuesAreCountedOnce() {
+        HyperLogLog sketch = sketchOf(0, 500);
+        long before = sketch.estimate();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) sketch.add("u" + i);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(before);
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(0, 60_000);
+        HyperLogLog second = sketchOf(40_000, 100_000);
+
+        first.merge(second);
+
+        assertThat(first.toBytes()).isEqualTo(sketchOf(0, 100_000).toBytes());
+        assertThat(first.estimate()).isCloseTo(100_000L, within(5_000L));
+    }
+
+    @Test
+    void smallSketchRoundTripsThroughTheSparseEncoding() {
+        HyperLogLog sketch = sketchOf(0, 100);
+
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes[0]).isZero();
+        assertThat(bytes.length).isLessThan(1 + 4096 * 6 / 8);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void largeSketchRoundTripsThroughTheDenseEncoding() {
+        HyperLogLog sketch = sketchOf(0, 100_000);
+
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes[0]).isEqualTo((byte) 1);
+        assertThat(bytes).hasSize(1 + 4096 * 6 / 8);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+}
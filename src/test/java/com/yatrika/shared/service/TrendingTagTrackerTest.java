@@ -0,0 +1,109 @@
+package com.yatrika.shared.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTagTrackerTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    // Stands in for wall time so the window can be moved forward by hand
+    private static final class ManualClock extends Clock {
+        private long millis = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+        void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static void search(TrendingTagTracker tracker, String tag, int times) {
+        for (int i = 0; i < times; i++) tracker.onTagsSearched(List.of(tag));
+    }
+
+    @Test
+    void fullBucketEvictsTheSmallestAndTheNewcomerInheritsItsCount() {
+        TrendingTagTracker tracker = new TrendingTagTracker(new ManualClock(), HOUR, 24, 2);
+        search(tracker, "trekking", 5);
+        search(tracker, "food", 3);
+
+        search(tracker, "rafting", 1);
+
+        // Space-Saving overestimates the newcomer by the evicted count, never the heavy hitter
+        assertThat(tracker.top(10)).containsExactly(
+                new TrendingTagTracker.TrendingTag("trekking", 5),
+                new TrendingTagTracker.TrendingTag("rafting", 4));
+    }
+
+    @Test
+    void heavyHitterSurvivesAStreamOfOneOffTags() {
+        TrendingTagTracker tracker = new TrendingTagTracker(new ManualClock(), HOUR, 24, 8);
+        search(tracker, "trekking", 200);
+
+        for (int i = 0; i < 1_000; i++) search(tracker, "tag" + i, 1);
+
+        // Anything seen more than total / capacity (1200 / 8) times is guaranteed to keep its exact count
+        assertThat(tracker.top(8)).contains(new TrendingTagTracker.TrendingTag("trekking", 200));
+        assertThat(tracker.top(8)).hasSize(8);
+    }
+
+    @Test
+    void countsLeaveTheWindowWithTheirBucket() {
+        ManualClock clock = new ManualClock();
+        TrendingTagTracker tracker = new TrendingTagTracker(clock, HOUR, 3, 16);
+        search(tracker, "holi", 4);
+        clock.advance(HOUR);
+        search(tracker, "dashain", 2);
+        search(tracker, "holi", 1);
+
+        assertThat(tracker.top(10)).containsExactly(
+                new TrendingTagTracker.TrendingTag("holi", 5),
+                new TrendingTagTracker.TrendingTag("dashain", 2));
+
+        clock.advance(HOUR.multipliedBy(2)); // the first hour is now outside the 3-hour window
+        assertThat(tracker.top(10)).containsExactly(
+                new TrendingTagTracker.TrendingTag("dashain", 2),
+                new TrendingTagTracker.TrendingTag("holi", 1));
+
+        clock.advance(HOUR);
+        assertThat(tracker.top(10)).isEmpty();
+    }
+
+    @Test
+    void keywordSearchesOnlyCountTagsAlreadyTracked() {
+        TrendingTagTracker tracker = new TrendingTagTracker(new ManualClock(), HOUR, 24, 16);
+        tracker.onPostPublished(List.of("Pokhara"));
+
+        tracker.onKeywordSearched("cheap hotels in pokhara");
+
+        assertThat(tracker.topTags(10)).containsExactly("pokhara");
+        assertThat(tracker.top(1).get(0).score()).isEqualTo(4); // published (3) + searched (1)
+    }
+}
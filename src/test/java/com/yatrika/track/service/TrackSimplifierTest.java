@@ -0,0 +1,114 @@
+package com.yatrika.track.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrackSimplifierTest {
+
+    private static final double METERS_PER_DEGREE = 111_319.49;
+
+    private static double degrees(double meters) {
+        return meters / METERS_PER_DEGREE;
+    }
+
+    @Test
+    void straightLineKeepsOnlyItsEndpoints() {
+        int n = 50_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) lon[i] = i * 1e-5;
+
+        TrackSimplifier simplifier = new TrackSimplifier(lat, lon, n, 0);
+
+        assertThat(simplifier.simplify(simplifier.all(), 1)).containsExactly(0, n - 1);
+    }
+
+    @Test
+    void zigzagIsFlattenedOnlyWhenWithinTolerance() {
+        int n = 101;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lon[i] = degrees(i * 20);
+            lat[i] = i % 2 == 0 || i == n - 1 ? 0 : degrees(5); // 5 m off the line at every other point
+        }
+        TrackSimplifier simplifier = new TrackSimplifier(lat, lon, n, 0);
+
+        assertThat(simplifier.simplify(simplifier.all(), 10)).containsExactly(0, n - 1);
+        assertThat(simplifier.simplify(simplifier.all(), 2)).hasSize(n);
+    }
+
+    @Test
+    void droppedPointsStayWithinToleranceOfTheKeptLine() {
+        int n = 5_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 1; i < n; i++) {
+            lat[i] = lat[i - 1] + degrees(random.nextDouble(-10, 10));
+            lon[i] = lon[i - 1] + degrees(random.nextDouble(0, 10));
+        }
+        TrackSimplifier simplifier = new TrackSimplifier(lat, lon, n, 0);
+        double tolerance = 25;
+
+        int[] kept = simplifier.simplify(simplifier.all(), tolerance);
+
+        assertThat(kept.length).isLessThan(n / 2);
+        // Every original point between two kept ones lies within tolerance of the segment joining them
+        for (int s = 0; s + 1 < kept.length; s++) {
+            for (int p = kept[s] + 1; p < kept[s + 1]; p++) {
+                assertThat(distanceToSegment(lat, lon, p, kept[s], kept[s + 1])).isLessThanOrEqualTo(tolerance + 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void coarserLevelsCanReuseFinerOutput() {
+        int n = 2_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lon[i] = degrees(i * 10);
+            lat[i] = degrees(200 * Math.sin(i / 50.0));
+        }
+        TrackSimplifier simplifier = new TrackSimplifier(lat, lon, n, 0);
+
+        int[] fine = simplifier.simplify(simplifier.all(), 1);
+        int[] coarse = simplifier.simplify(fine, 20);
+
+        assertThat(coarse.length).isLessThan(fine.length);
+        assertThat(fine).contains(coarse);
+    }
+
+    @Test
+    void toleranceHalvesWithEachZoomLevel() {
+        double z10 = TrackSimplifier.toleranceMeters(10, 0, 1);
+
+        assertThat(z10).isCloseTo(152.87, within(0.01));
+        assertThat(TrackSimplifier.toleranceMeters(11, 0, 1)).isCloseTo(z10 / 2, within(1e-9));
+        assertThat(TrackSimplifier.toleranceMeters(10, 60, 1)).isCloseTo(z10 / 2, within(1e-6));
+    }
+
+    @Test
+    void encodesGooglesReferencePolyline() {
+        double[] lat = {38.5, 40.7, 43.252};
+        double[] lon = {-120.2, -120.95, -126.453};
+
+        assertThat(TrackSimplifier.encode(lat, lon, new int[]{0, 1, 2})).isEqualTo("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+    }
+
+    // Same local projection as the simplifier uses at reference latitude 0
+    private static double distanceToSegment(double[] lat, double[] lon, int p, int a, int b) {
+        double ax = lon[a] * METERS_PER_DEGREE, ay = lat[a] * METERS_PER_DEGREE;
+        double bx = lon[b] * METERS_PER_DEGREE, by = lat[b] * METERS_PER_DEGREE;
+        double px = lon[p] * METERS_PER_DEGREE, py = lat[p] * METERS_PER_DEGREE;
+        double dx = bx - ax, dy = by - ay;
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / len2));
+        return Math.hypot(ax + t * dx - px, ay + t * dy - py);
+    }
+}